@@ -0,0 +1,155 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import com.limemojito.aws.cleaner.config.CredentialsConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Runs the full set of cleaners for one or more accounts on a bounded pool of workers.
+ * Each account has its own Spring context built from {@link CredentialsConfig} with the account's role assumed, and
+ * a {@link RegionSweep} that cleans the configured regions using those credentials.  Failures are isolated per
+ * account, so an account whose role can not be assumed does not stop the others.
+ */
+@Slf4j
+public class AccountSweep implements AutoCloseable {
+    private static final String DEFAULT_ACCOUNT = "default credentials";
+    private final ApplicationContext parent;
+    private final List<Region> regions;
+    private final int concurrency;
+    private final List<Account> accounts;
+
+    /**
+     * Constructs a new AccountSweep.
+     *
+     * @param parent      The session context providing the token service
+     * @param roleArns    The roles to assume, one per account.  A blank role uses the default credentials.
+     * @param regions     The regions to clean in every account
+     * @param concurrency Maximum number of accounts to clean at the same time
+     */
+    public AccountSweep(ApplicationContext parent, List<String> roleArns, List<Region> regions, int concurrency) {
+        if (roleArns.isEmpty()) {
+            throw new IllegalArgumentException("At least one account is required");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(format("cleaner.account.concurrency must be at least 1, was %d",
+                                                      concurrency));
+        }
+        this.parent = parent;
+        this.regions = regions;
+        this.concurrency = concurrency;
+        this.accounts = roleArns.stream().map(Account::new).toList();
+    }
+
+    /**
+     * Cleans every account and waits for all accounts to finish.
+     * Account contexts are created on first use and kept for later cleans.
+     *
+     * @param commit true to perform actual deletions, false for dry-run mode
+     * @return The result for each account and region, in the order the accounts were configured
+     */
+    public List<CleanResult> clean(boolean commit) {
+        final List<Future<List<CleanResult>>> futures = new ArrayList<>(accounts.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, accounts.size()),
+                                                                     Thread.ofPlatform()
+                                                                           .name("account-", 1)
+                                                                           .factory())) {
+            accounts.forEach(account -> futures.add(executor.submit(() -> account.clean(commit))));
+        }
+        return futures.stream().flatMap(f -> f.resultNow().stream()).toList();
+    }
+
+    /**
+     * Closes the contexts of every account and region.
+     */
+    @Override
+    public void close() {
+        accounts.forEach(Account::close);
+    }
+
+    private final class Account {
+        private final String roleArn;
+        private final String label;
+        private AnnotationConfigApplicationContext context;
+        private RegionSweep regionSweep;
+
+        private Account(String roleArn) {
+            this.roleArn = roleArn;
+            this.label = isBlank(roleArn) ? DEFAULT_ACCOUNT : roleArn;
+        }
+
+        private synchronized List<CleanResult> clean(boolean commit) {
+            final long start = System.currentTimeMillis();
+            try {
+                prepare();
+            } catch (RuntimeException e) {
+                log.error("Could not prepare account {}: {}", label, e.getMessage(), e);
+                close();
+                return List.of(new CleanResult(label, Duration.ofMillis(System.currentTimeMillis() - start), e));
+            }
+            log.info("Cleaning account {}", label);
+            return regionSweep.clean(commit)
+                              .stream()
+                              .map(r -> new CleanResult(label + " " + r.scope(), r.elapsed(), r.failure(), r.cleaners()))
+                              .toList();
+        }
+
+        private void prepare() {
+            if (context == null) {
+                context = new AnnotationConfigApplicationContext();
+                context.setParent(parent);
+                context.setDisplayName("account-" + label);
+                context.getEnvironment()
+                       .getPropertySources()
+                       .addFirst(new MapPropertySource("cleaner-account",
+                                                       Map.of("cleaner.role.arn", roleArn)));
+                context.register(CredentialsConfig.class);
+                context.refresh();
+            }
+            if (regionSweep == null) {
+                regionSweep = new RegionSweep(context, regions);
+            }
+        }
+
+        private synchronized void close() {
+            if (regionSweep != null) {
+                regionSweep.close();
+                regionSweep = null;
+            }
+            if (context != null) {
+                context.close();
+                context = null;
+            }
+        }
+    }
+}
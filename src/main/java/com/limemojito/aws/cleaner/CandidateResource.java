@@ -0,0 +1,64 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A resource found by a cleaner's listing, carrying the metadata the listing returned so that filters and deletion
+ * do not need to describe the resource again.  Only the ID is always present, the other fields are null when the
+ * service's listing does not return them.
+ *
+ * @param id        The physical ID the cleaner deletes the resource by, such as a name, URL or ARN
+ * @param arn       The ARN of the resource, if known
+ * @param created   When the resource was created, if known
+ * @param sizeBytes The stored size of the resource in bytes, if known
+ * @param status    The service specific status of the resource, if known
+ * @param tags      The tags of the resource, or null if the listing does not return tags
+ */
+@Builder
+public record CandidateResource(String id,
+                                String arn,
+                                Instant created,
+                                Long sizeBytes,
+                                String status,
+                                Map<String, String> tags) {
+
+    /**
+     * Creates a candidate that is only known by its physical ID.
+     *
+     * @param id The physical ID of the resource
+     * @return The candidate
+     */
+    public static CandidateResource of(String id) {
+        return builder().id(id).build();
+    }
+
+    /**
+     * Describes the candidate by its physical ID so that log lines name the resource.
+     *
+     * @return The physical ID
+     */
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+
+/**
+ * Published to a region's context when a clean of that region ends, whether or not it succeeded.
+ * Beans that gather per-run statistics listen for this event to report them.
+ *
+ * @param region  The region that was cleaned
+ * @param elapsed How long the clean took
+ */
+public record CleanFinishedEvent(Region region, Duration elapsed) {
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of cleaning one scope, such as a region, within a run.
+ *
+ * @param scope    Description of what was cleaned, for example the region name
+ * @param elapsed  Wall clock time taken to clean the scope
+ * @param failure  The failure that stopped the clean, or null if the clean succeeded
+ * @param cleaners The outcome of each cleaner run in the scope
+ */
+public record CleanResult(String scope, Duration elapsed, RuntimeException failure, List<CleanerReport> cleaners) {
+
+    /**
+     * Constructs the outcome of a scope where no cleaner was run.
+     *
+     * @param scope   Description of what was cleaned, for example the region name
+     * @param elapsed Wall clock time taken to clean the scope
+     * @param failure The failure that stopped the clean, or null if the clean succeeded
+     */
+    public CleanResult(String scope, Duration elapsed, RuntimeException failure) {
+        this(scope, elapsed, failure, List.of());
+    }
+
+    /**
+     * Whether the scope was cleaned without failure.
+     *
+     * @return true if the clean succeeded
+     */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
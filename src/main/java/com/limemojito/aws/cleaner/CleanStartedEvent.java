@@ -0,0 +1,31 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Published to a region's context as each clean of that region starts.
+ * Beans that hold per-run state, such as indexes built from the account's live resources, listen for this event to
+ * discard that state so a daemon sees the account as it is now rather than as it was on the previous run.
+ *
+ * @param region The region being cleaned
+ * @param commit true if the run will perform deletions
+ */
+public record CleanStartedEvent(Region region, boolean commit) {
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Runs a clean repeatedly on a schedule within one long-lived JVM.
+ * Keeping the process alive keeps the Spring contexts, credentials and SDK connection pools warm between runs.
+ * Runs never overlap: runs are performed one at a time and a scheduled time that passes while a run is still in
+ * progress is skipped.  Closing the daemon waits for any run in progress to finish.  A run failing with an exception is
+ * logged and the schedule continues, while a run failing with an {@link Error} stops the daemon.
+ */
+@Slf4j
+public class CleanerDaemon implements AutoCloseable {
+    private final Runnable clean;
+    private final Schedule schedule;
+    private final ScheduledThreadPoolExecutor executor;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean stopping;
+    private volatile Error failure;
+
+    /**
+     * Calculates when the next run is due.
+     */
+    @FunctionalInterface
+    public interface Schedule {
+        /**
+         * Calculates the time of the next run.
+         *
+         * @param previous The time the previous run was due
+         * @return The time the next run is due, or null if there are no further runs
+         */
+        ZonedDateTime next(ZonedDateTime previous);
+
+        /**
+         * Creates a schedule from a Spring cron expression such as {@code 0 0 * * * *} for hourly.
+         *
+         * @param expression The six field cron expression
+         * @return The cron schedule
+         */
+        static Schedule cron(String expression) {
+            final CronExpression cron = CronExpression.parse(expression);
+            return cron::next;
+        }
+
+        /**
+         * Creates a schedule that runs at a fixed interval.
+         *
+         * @param interval The time between the start of each run
+         * @return The interval schedule
+         */
+        static Schedule interval(Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException(format("Schedule interval must be positive, was %s", interval));
+            }
+            return previous -> previous.plus(interval);
+        }
+    }
+
+    /**
+     * Constructs a new CleanerDaemon.
+     *
+     * @param clean    The clean to perform on each run
+     * @param schedule The schedule to run on
+     */
+    public CleanerDaemon(Runnable clean, Schedule schedule) {
+        this.clean = clean;
+        this.schedule = schedule;
+        this.executor = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name("cleaner-daemon").factory());
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Runs the clean on schedule, blocking until the daemon is closed.
+     *
+     * @param runImmediately true to run once straight away before following the schedule
+     * @throws Error the error that stopped the daemon, if a run failed with one
+     */
+    public void run(boolean runImmediately) {
+        final ZonedDateTime now = ZonedDateTime.now();
+        if (runImmediately) {
+            scheduleAt(now);
+        } else {
+            scheduleAt(schedule.next(now));
+        }
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted waiting for daemon to stop");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops scheduling runs and waits for a run in progress to complete.
+     */
+    @Override
+    public void close() {
+        if (!stopping) {
+            stopping = true;
+            log.info("Stopping cleaner daemon, waiting for any run in progress");
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.info("Still waiting for run in progress to complete");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted waiting for run in progress");
+            }
+            stopped.countDown();
+            log.info("Cleaner daemon stopped");
+        }
+    }
+
+    private void scheduleAt(ZonedDateTime due) {
+        if (stopping) {
+            return;
+        }
+        if (due == null) {
+            log.warn("Schedule has no further runs, stopping");
+            stopping = true;
+            executor.shutdown();
+            stopped.countDown();
+            return;
+        }
+        final long delayMs = Math.max(0, Duration.between(ZonedDateTime.now(), due).toMillis());
+        log.info("Next clean scheduled at {}", due);
+        executor.schedule(() -> performRun(due), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void performRun(ZonedDateTime due) {
+        final long start = System.currentTimeMillis();
+        try {
+            log.info("Starting scheduled clean due at {}", due);
+            clean.run();
+        } catch (RuntimeException e) {
+            log.error("Scheduled clean failed: {}", e.getMessage(), e);
+        } catch (Error e) {
+            // the daemon stops rather than leaving run() waiting on a schedule that will never continue.
+            log.error("Scheduled clean failed, stopping cleaner daemon: {}", e.toString(), e);
+            failure = e;
+            stopping = true;
+            executor.shutdown();
+            stopped.countDown();
+            return;
+        }
+        log.info("Scheduled clean finished in {}ms", System.currentTimeMillis() - start);
+        scheduleAt(nextAfterNow(due));
+    }
+
+    private ZonedDateTime nextAfterNow(ZonedDateTime due) {
+        final ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = schedule.next(due);
+        while (next != null && next.isBefore(now)) {
+            log.warn("Skipping clean due at {} as the previous clean overran", next);
+            next = schedule.next(next);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs resource cleaners concurrently while respecting their ordering constraints.
+ * Cleaners with a higher precedence {@link org.springframework.core.annotation.Order} complete before cleaners
+ * with a lower precedence start, so CloudFormation is always cleaned first.  Cleaners of equal precedence run in
+ * parallel unless one declares another in {@link ResourceCleaner#getPredecessors()}.
+ * <p>
+ * In asynchronous mode cleaners are composed through {@link ResourceCleaner#cleanAsync()} rather than being given a
+ * thread each, so the concurrency limit does not apply.
+ */
+@Component
+@Slf4j
+public class CleanerScheduler {
+    private final int concurrency;
+    @Getter
+    private final boolean async;
+
+    /**
+     * Constructs a new synchronous CleanerScheduler.
+     *
+     * @param concurrency Maximum number of cleaners to run at the same time
+     */
+    public CleanerScheduler(int concurrency) {
+        this(concurrency, false);
+    }
+
+    /**
+     * Constructs a new CleanerScheduler.
+     *
+     * @param concurrency Maximum number of cleaners to run at the same time
+     * @param async       true to clean using the asynchronous cleaner API
+     */
+    @Autowired
+    public CleanerScheduler(@Value("${cleaner.concurrency}") int concurrency,
+                            @Value("${cleaner.async}") boolean async) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(format("cleaner.concurrency must be at least 1, was %d", concurrency));
+        }
+        this.concurrency = concurrency;
+        this.async = async;
+    }
+
+    /**
+     * Performs the task for every cleaner, starting each cleaner as soon as all of its predecessors have completed.
+     * When a cleaner fails, cleaners that depend on it are skipped while independent cleaners run to completion.
+     *
+     * @param cleaners The cleaners to schedule, in their preferred order
+     * @param task     The work to perform for each cleaner
+     * @throws IllegalStateException if the ordering constraints contain a cycle, or more than one cleaner failed
+     */
+    public void execute(List<ResourceCleaner> cleaners, Consumer<ResourceCleaner> task) {
+        if (cleaners.isEmpty()) {
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, cleaners.size()),
+                                                                      Thread.ofPlatform()
+                                                                            .name("cleaner-", 1)
+                                                                            .factory());
+        try {
+            executeStages(cleaners, cleaner -> CompletableFuture.runAsync(() -> task.accept(cleaner), executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts the asynchronous task for every cleaner as soon as all of its predecessors have completed, and waits
+     * for every task to complete.
+     * When a cleaner fails, cleaners that depend on it are skipped while independent cleaners run to completion.
+     *
+     * @param cleaners The cleaners to schedule, in their preferred order
+     * @param task     Starts the work for a cleaner, returning a stage that completes when the work is done
+     * @throws IllegalStateException if the ordering constraints contain a cycle, or more than one cleaner failed
+     */
+    public void executeAsync(List<ResourceCleaner> cleaners, Function<ResourceCleaner, CompletionStage<Void>> task) {
+        if (!cleaners.isEmpty()) {
+            executeStages(cleaners, task);
+        }
+    }
+
+    private void executeStages(List<ResourceCleaner> cleaners,
+                               Function<ResourceCleaner, CompletionStage<Void>> task) {
+        final Map<ResourceCleaner, Set<ResourceCleaner>> predecessors = buildPredecessors(cleaners);
+        final List<ResourceCleaner> order = topologicalOrder(cleaners, predecessors);
+        final Map<ResourceCleaner, RuntimeException> failures = new ConcurrentHashMap<>();
+        final Map<ResourceCleaner, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        for (ResourceCleaner cleaner : order) {
+            final CompletableFuture<?>[] before = predecessors.get(cleaner)
+                                                              .stream()
+                                                              .map(futures::get)
+                                                              .toArray(CompletableFuture[]::new);
+            futures.put(cleaner, CompletableFuture.allOf(before)
+                                                  .thenCompose(v -> start(cleaner, task).whenComplete((r, e) -> {
+                                                      if (e != null) {
+                                                          failures.put(cleaner, unwrap(e));
+                                                      }
+                                                  })));
+        }
+        awaitAll(futures.values());
+        reportFailures(order, futures, failures);
+    }
+
+    private CompletableFuture<Void> start(ResourceCleaner cleaner,
+                                          Function<ResourceCleaner, CompletionStage<Void>> task) {
+        try {
+            return task.apply(cleaner).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private Map<ResourceCleaner, Set<ResourceCleaner>> buildPredecessors(List<ResourceCleaner> cleaners) {
+        final Map<ResourceCleaner, Set<ResourceCleaner>> predecessors = new IdentityHashMap<>();
+        for (ResourceCleaner cleaner : cleaners) {
+            final Set<ResourceCleaner> before = new LinkedHashSet<>();
+            final Collection<Class<? extends ResourceCleaner>> declared = cleaner.getPredecessors();
+            for (ResourceCleaner other : cleaners) {
+                if (other != cleaner && (orderOf(other) < orderOf(cleaner) || isDeclared(declared, other))) {
+                    before.add(other);
+                }
+            }
+            log.debug("{} runs after {}", name(cleaner), before.stream().map(this::name).collect(toList()));
+            predecessors.put(cleaner, before);
+        }
+        return predecessors;
+    }
+
+    private List<ResourceCleaner> topologicalOrder(List<ResourceCleaner> cleaners,
+                                                   Map<ResourceCleaner, Set<ResourceCleaner>> predecessors) {
+        final List<ResourceCleaner> order = new ArrayList<>(cleaners.size());
+        final List<ResourceCleaner> remaining = new ArrayList<>(cleaners);
+        boolean progress = true;
+        while (!remaining.isEmpty() && progress) {
+            progress = remaining.removeIf(cleaner -> {
+                final boolean ready = order.containsAll(predecessors.get(cleaner));
+                if (ready) {
+                    order.add(cleaner);
+                }
+                return ready;
+            });
+        }
+        if (!remaining.isEmpty()) {
+            throw new IllegalStateException(format("Cleaner ordering contains a cycle between %s",
+                                                   remaining.stream().map(this::name).collect(toList())));
+        }
+        return order;
+    }
+
+    private void awaitAll(Collection<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            log.debug("Cleaner failure detected", e);
+        }
+    }
+
+    private void reportFailures(List<ResourceCleaner> order,
+                                Map<ResourceCleaner, CompletableFuture<Void>> futures,
+                                Map<ResourceCleaner, RuntimeException> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        for (ResourceCleaner cleaner : order) {
+            final RuntimeException failure = failures.get(cleaner);
+            if (failure != null) {
+                log.error("{} failed: {}", name(cleaner), failure.getMessage());
+            } else if (futures.get(cleaner).isCompletedExceptionally()) {
+                log.warn("{} skipped as a predecessor failed", name(cleaner));
+            }
+        }
+        if (failures.size() == 1) {
+            throw failures.values().iterator().next();
+        }
+        final IllegalStateException combined = new IllegalStateException(format("%d cleaners failed",
+                                                                                 failures.size()));
+        failures.values().forEach(combined::addSuppressed);
+        throw combined;
+    }
+
+    private boolean isDeclared(Collection<Class<? extends ResourceCleaner>> declared, ResourceCleaner other) {
+        return declared != null && declared.stream().anyMatch(type -> type.isInstance(other));
+    }
+
+    private int orderOf(ResourceCleaner cleaner) {
+        return OrderUtils.getOrder(ClassUtils.getUserClass(cleaner), Ordered.LOWEST_PRECEDENCE);
+    }
+
+    private String name(ResourceCleaner cleaner) {
+        return ClassUtils.getUserClass(cleaner).getSimpleName();
+    }
+}
@@ -17,17 +17,34 @@
 
 package com.limemojito.aws.cleaner;
 
-import com.limemojito.aws.cleaner.config.CleanerConfig;
+import com.limemojito.aws.cleaner.config.SessionConfig;
+import com.limemojito.aws.cleaner.metrics.ApiMetrics;
+import com.limemojito.aws.cleaner.metrics.CleanEvent;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import com.limemojito.aws.cleaner.metrics.RunReport;
+import com.limemojito.aws.cleaner.metrics.Span;
+import com.limemojito.aws.cleaner.metrics.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.regions.Region;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+import static com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter.stripCommaSeparated;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
  * Main entry point for the AWS resource cleaner application.
@@ -37,17 +54,52 @@ import java.util.List;
 public class Main {
     private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
     private final List<ResourceCleaner> resourceCleaners;
+    private final CleanerScheduler scheduler;
+    private final Region region;
+    private final ApplicationEventPublisher events;
+    private final ApiMetrics metrics;
+    private final Tracer tracer;
+    private volatile List<CleanerReport> reports = List.of();
+    private boolean commit;
 
     /**
      * Constructs a new Main instance with the specified resource cleaners and AWS region.
+     * Cleaners are run one at a time.
      *
      * @param resourceCleaners List of resource cleaners to be executed
      * @param region           AWS region where the cleaning will be performed
      */
-    @Autowired
     public Main(List<ResourceCleaner> resourceCleaners, Region region) {
+        this(resourceCleaners, region, new CleanerScheduler(1), event -> {
+        }, new ApiMetrics(), new Tracer());
+    }
+
+    /**
+     * Constructs a new Main instance running the cleaners on the scheduler, announcing the start and end of each clean
+     * with a {@link CleanStartedEvent} and a {@link CleanFinishedEvent}, attributing each cleaner's AWS calls in the
+     * run's metrics and tracing each cleaner as a child of the run's span.
+     *
+     * @param resourceCleaners List of resource cleaners to be executed
+     * @param region           AWS region where the cleaning will be performed
+     * @param scheduler        Scheduler used to run the cleaners concurrently
+     * @param events           Publisher used to announce the start and end of each clean
+     * @param metrics          The run's AWS API metrics
+     * @param tracer           The run's tracer
+     */
+    @Autowired
+    public Main(List<ResourceCleaner> resourceCleaners,
+                Region region,
+                CleanerScheduler scheduler,
+                ApplicationEventPublisher events,
+                ApiMetrics metrics,
+                Tracer tracer) {
         LOGGER.info("Performing clean in region {} using {} cleaners", region, resourceCleaners.size());
         this.resourceCleaners = resourceCleaners;
+        this.scheduler = scheduler;
+        this.region = region;
+        this.events = events;
+        this.metrics = metrics;
+        this.tracer = tracer;
     }
 
     /**
@@ -55,27 +107,169 @@ public class Main {
      * Parses command line arguments, initializes the Spring context, and starts the cleaning process.
      * If no arguments are provided, displays usage information.
      *
-     * @param args Command line arguments. Use "--commit" to actually perform deletions.
+     * @param args Command line arguments. Use "--commit" to actually perform deletions, "--daemon" to clean on a
+     *             schedule until the JVM is stopped.
      */
     public static void main(String... args) {
         LOGGER.info("""
                             Usage: java -D.... -jar aws-cleaner-XXXX.jar\n
                             \t-Dcleaner.region=<region> to override AWS region.
+                            \t-Dcleaner.regions=<comma,separated,regions> to clean several regions in parallel.
                             \t-Dcleaner.cloudformation.whitelist=<comma,separated,stack,name,prefixes> to keep named stacks.
+                            \t-Dcleaner.cloudformation.concurrency=<count> maximum stacks to delete in parallel (default 10).
+                            \t-Dcleaner.cloudformation.cache.dir=<dir> stack resource cache between runs, empty to disable (default ~/.aws-cleaner/cache).
+                            \t-Dcleaner.wait.poll.initial=<ISO-8601 duration> time between the first polls while waiting (default PT1S).
+                            \t-Dcleaner.wait.poll.max=<ISO-8601 duration> longest time between polls while waiting (default PT15S).
+                            \t-Dcleaner.include=<comma,separated,cleaners> only run these cleaners, eg s3,loggroup, or none.
+                            \t-Dcleaner.exclude=<comma,separated,cleaners> do not run these cleaners.
                             \t-Dcleaner.skip.names=<comma,separated,name,contains> to keep name containing resources.
+                            \t     name rules may also be glob:<pattern> matching the whole name or regex:<pattern>.
+                            \t-Dcleaner.tag.include=<comma,separated,key=value> only delete resources with one of these tags.
+                            \t-Dcleaner.tag.exclude=<comma,separated,key=value> keep resources with one of these tags, eg keep=true.
                             \t-Dcleaner.role.arn=<roleArn> role to assume to access AWS.
-                            \t-Dcleaner.mfa.arn=<mfaArn> device to use with Multi Factor Authentication (prompts for code).
+                            \t-Dcleaner.role.arns=<comma,separated,roleArns> roles to assume to clean several accounts.
+                            \t-Dcleaner.account.concurrency=<count> maximum accounts to clean in parallel (default 4).
+                            \t-Dcleaner.mfa.arn=<mfaArn> device to use with Multi Factor Authentication (prompts for code once, not with --daemon).
+                            \t-Dcleaner.concurrency=<count> maximum cleaners to run in parallel (default 8).
+                            \t-Dcleaner.resource.parallelism=<count> resources each cleaner processes at once (default 1).
+                            \t-Dcleaner.async=true clean using the non-blocking AWS clients where a cleaner supports them.
+                            \t-Dcleaner.http.max.connections=<count> connections shared by all AWS clients (default 128).
+                            \t-Dcleaner.http.connection.ttl=<ISO-8601 duration> maximum life of a pooled connection (default PT5M).
+                            \t-Dcleaner.http.keep.alive=false disable TCP keep-alive on pooled connections.
+                            \t-Dcleaner.http.acquire.timeout=<ISO-8601 duration> wait for a free connection (default PT30S).
+                            \t-Dcleaner.http.socket.timeout=<ISO-8601 duration> wait for a response on a connection (default PT30S).
+                            \t-Dcleaner.rate.limit=false do not limit the rate of AWS API calls after throttling.
+                            \t-Dcleaner.rate.max=<count> maximum requests per second to a throttled API (default 100).
+                            \t-Dcleaner.circuit.failure.rate=<percent> failed calls that stop calling a service, 0 to disable (default 50).
+                            \t-Dcleaner.circuit.window=<count> recent calls the failure rate is measured over (default 10).
+                            \t-Dcleaner.circuit.cool.down=<ISO-8601 duration> time before a failing service is tried again (default PT5M).
+                            \t-Dcleaner.metrics.file=<file> write AWS API call metrics after each run.
+                            \t-Dcleaner.metrics.format=json write the metrics as JSON instead of Prometheus text.
+                            \t-Dcleaner.report.file=<file> write a JSON report of each cleaner's outcome after each run.
+                            \t-Dcleaner.trace.file=<file> write the trace spans of each run as OTLP JSON.
+                            \t-Dcleaner.schedule.interval=<ISO-8601 duration> time between daemon runs (default PT1H).
+                            \t-Dcleaner.schedule.cron=<cron> six field cron schedule for daemon runs, overrides interval.
                             \t --commit to commit changes.
+                            \t --daemon to keep running, cleaning on the configured schedule.
                             """);
         boolean commit = Arrays.asList(args).contains("--commit");
+        boolean daemon = Arrays.asList(args).contains("--daemon");
         if (!commit) {
             LOGGER.warn("performing dry run.");
         }
-        AbstractApplicationContext context = new AnnotationConfigApplicationContext(CleanerConfig.class);
-        context.registerShutdownHook();
-        Main main = context.getBean(Main.class);
-        main.setCommit(commit);
-        main.cleanEnvironment();
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        if (daemon && !isBlank(context.getEnvironment().getProperty("cleaner.mfa.arn"))) {
+            // an MFA session can not be renewed without a new code, so a daemon would fail once it expires.
+            throw new IllegalArgumentException("--daemon can not be used with cleaner.mfa.arn");
+        }
+        context.register(SessionConfig.class);
+        context.refresh();
+        final Environment environment = context.getEnvironment();
+        final ApiMetrics metrics = context.getBean(ApiMetrics.class);
+        final RunReport report = context.getBean(RunReport.class);
+        final Tracer tracer = context.getBean(Tracer.class);
+        final AccountSweep sweep = new AccountSweep(context,
+                                                    roleArns(environment),
+                                                    regions(environment),
+                                                    environment.getRequiredProperty("cleaner.account.concurrency",
+                                                                                    Integer.class));
+        if (daemon) {
+            final String cron = environment.getProperty("cleaner.schedule.cron", "");
+            final CleanerDaemon cleanerDaemon = new CleanerDaemon(() -> cleanAndReport(sweep,
+                                                                                       commit,
+                                                                                       metrics,
+                                                                                       report,
+                                                                                       tracer),
+                                                                  schedule(environment));
+            // stop scheduling and let any run in progress finish before the clients are closed.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                cleanerDaemon.close();
+                sweep.close();
+                context.close();
+            }, "cleaner-shutdown"));
+            cleanerDaemon.run(isBlank(cron));
+        } else {
+            context.registerShutdownHook();
+            try (sweep) {
+                cleanAndReport(sweep, commit, metrics, report, tracer);
+            }
+        }
+    }
+
+    private static void cleanAndReport(AccountSweep sweep,
+                                       boolean commit,
+                                       ApiMetrics metrics,
+                                       RunReport report,
+                                       Tracer tracer) {
+        final Instant started = Instant.now();
+        final Span run = tracer.startRun(commit);
+        final List<CleanResult> results = sweep.clean(commit);
+        run.end(results.stream().map(CleanResult::failure).filter(Objects::nonNull).findFirst().orElse(null));
+        try {
+            reportResults(results);
+        } finally {
+            metrics.export();
+            report.write(started, commit, results);
+            tracer.export();
+        }
+    }
+
+    /**
+     * Logs a combined summary of the results, failing if any scope failed.
+     *
+     * @param results The results of cleaning each scope
+     * @throws RuntimeException the failure when a single scope failed, or an IllegalStateException when several did
+     */
+    static void reportResults(List<CleanResult> results) {
+        LOGGER.info("Clean summary:");
+        results.forEach(result -> {
+            if (result.isSuccess()) {
+                LOGGER.info("\t{} completed in {}ms", result.scope(), result.elapsed().toMillis());
+            } else {
+                LOGGER.error("\t{} failed after {}ms: {}",
+                             result.scope(),
+                             result.elapsed().toMillis(),
+                             result.failure().getMessage());
+            }
+        });
+        final List<CleanResult> failed = results.stream().filter(r -> !r.isSuccess()).toList();
+        if (failed.size() == 1) {
+            throw failed.getFirst().failure();
+        }
+        if (!failed.isEmpty()) {
+            final IllegalStateException combined = new IllegalStateException(format("%d of %d cleans failed",
+                                                                                     failed.size(),
+                                                                                     results.size()));
+            failed.forEach(r -> combined.addSuppressed(r.failure()));
+            throw combined;
+        }
+    }
+
+    private static CleanerDaemon.Schedule schedule(Environment environment) {
+        final String cron = environment.getProperty("cleaner.schedule.cron", "");
+        if (!isBlank(cron)) {
+            LOGGER.info("Cleaning on cron schedule {}", cron);
+            return CleanerDaemon.Schedule.cron(cron);
+        }
+        final Duration interval = Duration.parse(environment.getRequiredProperty("cleaner.schedule.interval"));
+        LOGGER.info("Cleaning every {}", interval);
+        return CleanerDaemon.Schedule.interval(interval);
+    }
+
+    private static List<String> roleArns(Environment environment) {
+        final List<String> roleArns = stripCommaSeparated(environment.getProperty("cleaner.role.arns", ""));
+        if (roleArns.isEmpty()) {
+            return List.of(environment.getProperty("cleaner.role.arn", ""));
+        }
+        return roleArns;
+    }
+
+    private static List<Region> regions(Environment environment) {
+        final List<String> regions = stripCommaSeparated(environment.getProperty("cleaner.regions", ""));
+        if (regions.isEmpty()) {
+            return List.of(Region.of(environment.getRequiredProperty("cleaner.region")));
+        }
+        return regions.stream().map(Region::of).toList();
     }
 
     /**
@@ -89,19 +283,90 @@ public class Main {
         if (commit) {
             LOGGER.warn("Committing Changes");
         }
+        this.commit = commit;
         resourceCleaners.forEach(o -> o.setCommit(commit));
     }
 
+    /**
+     * Gets the outcome of each cleaner in the most recent clean.
+     *
+     * @return The report of each cleaner, empty before the first clean
+     */
+    public List<CleanerReport> getReports() {
+        return reports;
+    }
+
     /**
      * Executes the cleaning process for all registered resource cleaners.
-     * Each cleaner is processed sequentially to clean its respective AWS resources.
+     * Cleaners are run in parallel by the scheduler, respecting their order and declared predecessors.
      */
     public void cleanEnvironment() {
         LOGGER.info("Cleaning AWS resources");
+        final long start = System.currentTimeMillis();
+        final Map<ResourceCleaner, CleanerReport> cleanerReports = new IdentityHashMap<>();
         for (ResourceCleaner resourceCleaner : resourceCleaners) {
-            LOGGER.info("Processing {}", resourceCleaner.getClass().getSimpleName());
-            resourceCleaner.clean();
+            final CleanerReport report = new CleanerReport(region.id(),
+                                                           resourceCleaner.getClass().getSimpleName(),
+                                                           metrics);
+            resourceCleaner.setReport(report);
+            cleanerReports.put(resourceCleaner, report);
         }
-        LOGGER.debug("Resource cleaning completed");
+        reports = resourceCleaners.stream().map(cleanerReports::get).toList();
+        events.publishEvent(new CleanStartedEvent(region, commit));
+        try {
+            if (scheduler.isAsync()) {
+                scheduler.executeAsync(resourceCleaners, c -> cleanTrackedAsync(c, cleanerReports.get(c)));
+            } else {
+                scheduler.execute(resourceCleaners, c -> cleanTracked(c, cleanerReports.get(c)));
+            }
+        } finally {
+            final long elapsed = System.currentTimeMillis() - start;
+            events.publishEvent(new CleanFinishedEvent(region, Duration.ofMillis(elapsed)));
+            LOGGER.debug("Resource cleaning completed in {}ms", elapsed);
+        }
+    }
+
+    private void cleanTracked(ResourceCleaner resourceCleaner, CleanerReport report) {
+        LOGGER.info("Processing {}", report.cleaner());
+        final long started = System.nanoTime();
+        final CleanEvent event = new CleanEvent();
+        event.begin();
+        final Span span = startSpan(report);
+        try {
+            report.track(() -> {
+                resourceCleaner.clean();
+                return null;
+            });
+            report.finished(Duration.ofNanos(System.nanoTime() - started), null);
+            event.commit(report, null);
+            span.end();
+        } catch (RuntimeException e) {
+            report.finished(Duration.ofNanos(System.nanoTime() - started), e);
+            event.commit(report, e);
+            span.end(e);
+            throw e;
+        }
+    }
+
+    private CompletionStage<Void> cleanTrackedAsync(ResourceCleaner resourceCleaner, CleanerReport report) {
+        LOGGER.info("Processing {}", report.cleaner());
+        final long started = System.nanoTime();
+        final CleanEvent event = new CleanEvent();
+        event.begin();
+        final Span span = startSpan(report);
+        return report.track(resourceCleaner::cleanAsync)
+                     .whenComplete((v, e) -> {
+                         report.finished(Duration.ofNanos(System.nanoTime() - started), e);
+                         event.commit(report, e);
+                         span.end(e);
+                     });
+    }
+
+    private Span startSpan(CleanerReport report) {
+        final Span span = tracer.run()
+                                .child(report.cleaner())
+                                .attribute("cloud.region", report.region());
+        report.started(span);
+        return span;
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import com.limemojito.aws.cleaner.config.CleanerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the full set of cleaners in one or more regions concurrently.
+ * Each region has its own Spring context built from {@link CleanerConfig}, so SDK clients, filters and any region
+ * scoped state in the cleaners are isolated per region.  Every region context shares the parent context, and with
+ * it the credentials provider.
+ */
+@Slf4j
+public class RegionSweep implements AutoCloseable {
+    private final Map<Region, AnnotationConfigApplicationContext> regionContexts = new LinkedHashMap<>();
+
+    /**
+     * Constructs a new RegionSweep, building a context for each region.
+     *
+     * @param parent  The context providing the shared credentials
+     * @param regions The regions to clean
+     */
+    public RegionSweep(ApplicationContext parent, List<Region> regions) {
+        if (regions.isEmpty()) {
+            throw new IllegalArgumentException("At least one region is required");
+        }
+        try {
+            for (Region region : regions) {
+                regionContexts.put(region, createRegionContext(parent, region));
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cleans every region concurrently and waits for all regions to finish.
+     * A failure in one region does not stop the other regions.
+     *
+     * @param commit true to perform actual deletions, false for dry-run mode
+     * @return The result for each region, in the order the regions were configured
+     */
+    public List<CleanResult> clean(boolean commit) {
+        final List<Future<CleanResult>> futures = new ArrayList<>(regionContexts.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            regionContexts.forEach((region, context) -> futures.add(executor.submit(() -> cleanRegion(region,
+                                                                                                    context,
+                                                                                                    commit))));
+        }
+        return futures.stream().map(Future::resultNow).toList();
+    }
+
+    /**
+     * Closes the context of every region, releasing the SDK clients.
+     */
+    @Override
+    public void close() {
+        regionContexts.values().forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    private CleanResult cleanRegion(Region region, ApplicationContext context, boolean commit) {
+        final long start = System.currentTimeMillis();
+        Main main = null;
+        try {
+            main = context.getBean(Main.class);
+            main.setCommit(commit);
+            main.cleanEnvironment();
+            return new CleanResult(region.id(), elapsedSince(start), null, main.getReports());
+        } catch (RuntimeException e) {
+            log.error("Cleaning region {} failed: {}", region, e.getMessage(), e);
+            return new CleanResult(region.id(), elapsedSince(start), e, main == null ? List.of() : main.getReports());
+        }
+    }
+
+    private static AnnotationConfigApplicationContext createRegionContext(ApplicationContext parent, Region region) {
+        log.debug("Creating context for region {}", region);
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setParent(parent);
+        context.setDisplayName("cleaner-" + region.id());
+        context.getEnvironment()
+               .getPropertySources()
+               .addFirst(new MapPropertySource("cleaner-region", Map.of("cleaner.region", region.id())));
+        context.register(CleanerConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    private static Duration elapsedSince(long start) {
+        return Duration.ofMillis(System.currentTimeMillis() - start);
+    }
+}
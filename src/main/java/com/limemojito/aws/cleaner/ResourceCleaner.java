@@ -18,8 +18,15 @@
 package com.limemojito.aws.cleaner;
 
 import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.Collections.emptyList;
+
 /**
  * Interface for AWS resource cleaners.
  * Implementations of this interface are responsible for cleaning specific types of AWS resources.
@@ -40,10 +47,47 @@ public interface ResourceCleaner {
      */
     void clean();
 
+    /**
+     * Asynchronous counterpart of {@link #clean()}, used when {@code cleaner.async} is enabled.
+     * Cleaners backed by the AWS SDK asynchronous clients override this so that no thread is held per request in
+     * flight.  The default performs {@link #clean()} on its own virtual thread, tracking the report of the calling
+     * thread, so that blocking waits do not hold a shared pool thread and the AWS calls, waits and spans of the clean
+     * stay attributed to the cleaner.
+     *
+     * @return A stage that completes when the cleaning process has finished
+     */
+    default CompletionStage<Void> cleanAsync() {
+        final CleanerReport report = CleanerReport.current();
+        return CompletableFuture.runAsync(() -> report.track(() -> {
+            clean();
+            return null;
+        }), task -> Thread.ofVirtual().name(getClass().getSimpleName()).start(task));
+    }
+
     /**
      * Sets whether the cleaner should actually perform deletions or just simulate them.
      *
      * @param commit true to perform actual deletions, false for dry-run mode
      */
     void setCommit(boolean commit);
+
+    /**
+     * Sets the report that the cleaner counts the resources it lists, keeps and deletes in for the next clean.
+     * The default ignores the report.
+     *
+     * @param report The cleaner's report for the next clean
+     */
+    default void setReport(CleanerReport report) {
+    }
+
+    /**
+     * Declares the cleaners that must complete before this cleaner starts.
+     * Cleaners with a higher precedence {@link org.springframework.core.annotation.Order} always complete first,
+     * so this is only needed between cleaners of the same precedence.
+     *
+     * @return The cleaner types that this cleaner runs after
+     */
+    default Collection<Class<? extends ResourceCleaner>> getPredecessors() {
+        return emptyList();
+    }
 }
@@ -24,37 +24,49 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.PropertySource;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
-import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
 import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.elasticache.ElastiCacheClient;
 import software.amazon.awssdk.services.elasticbeanstalk.ElasticBeanstalkClient;
-import software.amazon.awssdk.services.iam.IamClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sts.StsClient;
-import software.amazon.awssdk.services.sts.model.AssumeRoleRequest;
-import software.amazon.awssdk.services.sts.model.Credentials;
 
-import java.util.Scanner;
-
-import static org.apache.commons.lang3.StringUtils.isBlank;
+import java.util.List;
 
 /**
  * Spring configuration class for the AWS resource cleaner application.
- * This class defines all the beans required for the application, including AWS clients
- * for various services, credential providers, and region configuration.
+ * This class defines the region scoped beans required for the application, including AWS clients
+ * for various services and region configuration.  It is loaded once per region being cleaned as a child of a
+ * context built from {@link CredentialsConfig}, which provides the account's shared credentials.
+ * <p>
+ * Only the cleaners selected by {@link CleanerSelectionFilter} are created, and the AWS clients are lazy so the
+ * client of an excluded cleaner is not built.  Selected cleaners and the deletion filters they share inject their
+ * clients when created, so those are always built.  Every client shares the HTTP connection pools
+ * defined in {@link SessionConfig} and the region's {@link #clientOverrides(List) interceptors}.
  */
-@Configuration
+@Configuration(proxyBeanMethods = false)
 @PropertySource("classpath:/cleaner.properties")
-@ComponentScan(basePackageClasses = Main.class)
+@ComponentScan(basePackageClasses = Main.class,
+               excludeFilters = {@ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                                                       classes = {SessionConfig.class, CredentialsConfig.class}),
+                                 @ComponentScan.Filter(type = FilterType.CUSTOM,
+                                                       classes = CleanerSelectionFilter.class)})
 @Slf4j
 public class CleanerConfig {
 
@@ -70,84 +82,17 @@ public class CleanerConfig {
     }
 
     /**
-     * Prompts for and returns an MFA code if MFA is configured.
-     *
-     * @param mfaArn The ARN of the MFA device, if any
-     * @return The MFA code entered by the user, or an empty string if MFA is not configured
-     */
-    @Bean
-    public String mfaCode(@Value("${cleaner.mfa.arn}") String mfaArn) {
-        if (!isBlank(mfaArn)) {
-            try (Scanner scanner = new Scanner(System.in)) {
-                System.out.print("Enter MFA code: ");
-                return scanner.next();
-            }
-        }
-        return "";
-    }
-
-    /**
-     * Creates an AWS Security Token Service client.
-     * This client is used for assuming roles and handling MFA authentication.
-     *
-     * @param region The AWS region to use
-     * @return The AWS Security Token Service client
-     */
-    @Bean(destroyMethod = "close")
-    public StsClient tokenService(Region region) {
-        return StsClient.builder()
-                        .region(region)
-                        .build();
-    }
-
-    /**
-     * Creates an AWS credentials provider that handles role assumption and MFA if configured.
-     * If a role ARN is provided, assumes that role. If an MFA ARN is also provided,
-     * uses the MFA code when assuming the role.
+     * Creates the client configuration shared by every AWS client of the region, installing each
+     * {@link ExecutionInterceptor} bean, such as the adaptive rate limiter, in order.
      *
-     * @param roleArn      The ARN of the role to assume, if any
-     * @param mfaArn       The ARN of the MFA device, if any
-     * @param tokenService The AWS Security Token Service client
-     * @param mfaCode      The MFA code, if MFA is configured
-     * @return An AWS credentials provider
+     * @param interceptors The interceptors to install
+     * @return The shared client configuration
      */
     @Bean
-    public AwsCredentialsProvider credentialsProvider(@Value("${cleaner.role.arn}") String roleArn,
-                                                      @Value("${cleaner.mfa.arn}") String mfaArn,
-                                                      StsClient tokenService,
-                                                      String mfaCode) {
-        if (!isBlank(roleArn)) {
-            log.info("Preparing credentials for Role: {}", roleArn);
-            final AssumeRoleRequest.Builder roleRequest = AssumeRoleRequest.builder()
-                                                                           .roleArn(roleArn)
-                                                                           .roleSessionName("aws-cleaner");
-            if (!isBlank(mfaArn)) {
-                log.info("Using MFA code with {}", mfaArn);
-                roleRequest.serialNumber(mfaArn);
-                roleRequest.tokenCode(mfaCode);
-            }
-            final Credentials credentials = tokenService.assumeRole(roleRequest.build()).credentials();
-            final AwsSessionCredentials sessionCredentials = AwsSessionCredentials.create(credentials.accessKeyId(),
-                                                                                          credentials.secretAccessKey(),
-                                                                                          credentials.sessionToken());
-            return StaticCredentialsProvider.create(sessionCredentials);
-        } else {
-            return DefaultCredentialsProvider.builder().build();
-        }
-    }
-
-    /**
-     * Creates an AWS Identity and Access Management (IAM) client.
-     *
-     * @param credentialsProvider The AWS credentials provider
-     * @return The AWS IAM client
-     */
-    @Bean(destroyMethod = "close")
-    public IamClient identityManagement(AwsCredentialsProvider credentialsProvider, Region region) {
-        return IamClient.builder()
-                        .credentialsProvider(credentialsProvider)
-                        .region(region)
-                        .build();
+    public ClientOverrideConfiguration clientOverrides(List<ExecutionInterceptor> interceptors) {
+        return ClientOverrideConfiguration.builder()
+                                          .executionInterceptors(interceptors)
+                                          .build();
     }
 
     /**
@@ -155,12 +100,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS DynamoDB client
      */
     @Bean(destroyMethod = "close")
-    public DynamoDbClient dynamoDBClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public DynamoDbClient dynamoDBClient(AwsCredentialsProvider credentialsProvider,
+                                         Region region,
+                                         SdkHttpClient httpClient,
+                                         ClientOverrideConfiguration clientOverrides) {
         return DynamoDbClient.builder()
                              .credentialsProvider(credentialsProvider)
+                             .httpClient(httpClient)
+                             .overrideConfiguration(clientOverrides)
                              .region(region)
                              .build();
     }
@@ -170,12 +123,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS Elastic Beanstalk client
      */
     @Bean(destroyMethod = "close")
-    public ElasticBeanstalkClient ebClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public ElasticBeanstalkClient ebClient(AwsCredentialsProvider credentialsProvider,
+                                           Region region,
+                                           SdkHttpClient httpClient,
+                                           ClientOverrideConfiguration clientOverrides) {
         return ElasticBeanstalkClient.builder()
                                      .credentialsProvider(credentialsProvider)
+                                     .httpClient(httpClient)
+                                     .overrideConfiguration(clientOverrides)
                                      .region(region)
                                      .build();
     }
@@ -185,12 +146,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS S3 client
      */
     @Bean(destroyMethod = "close")
-    public S3Client s3Client(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public S3Client s3Client(AwsCredentialsProvider credentialsProvider,
+                             Region region,
+                             SdkHttpClient httpClient,
+                             ClientOverrideConfiguration clientOverrides) {
         return S3Client.builder()
                        .credentialsProvider(credentialsProvider)
+                       .httpClient(httpClient)
+                       .overrideConfiguration(clientOverrides)
                        .region(region)
                        .build();
     }
@@ -200,12 +169,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS SNS client
      */
     @Bean(destroyMethod = "close")
-    public SnsClient snsClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public SnsClient snsClient(AwsCredentialsProvider credentialsProvider,
+                               Region region,
+                               SdkHttpClient httpClient,
+                               ClientOverrideConfiguration clientOverrides) {
         return SnsClient.builder()
                         .credentialsProvider(credentialsProvider)
+                        .httpClient(httpClient)
+                        .overrideConfiguration(clientOverrides)
                         .region(region)
                         .build();
     }
@@ -215,12 +192,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS SQS client
      */
     @Bean(destroyMethod = "close")
-    public SqsClient sqsClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public SqsClient sqsClient(AwsCredentialsProvider credentialsProvider,
+                               Region region,
+                               SdkHttpClient httpClient,
+                               ClientOverrideConfiguration clientOverrides) {
         return SqsClient.builder()
                         .credentialsProvider(credentialsProvider)
+                        .httpClient(httpClient)
+                        .overrideConfiguration(clientOverrides)
                         .region(region)
                         .build();
     }
@@ -230,12 +215,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS ElastiCache client
      */
     @Bean(destroyMethod = "close")
-    public ElastiCacheClient elastiCacheClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public ElastiCacheClient elastiCacheClient(AwsCredentialsProvider credentialsProvider,
+                                               Region region,
+                                               SdkHttpClient httpClient,
+                                               ClientOverrideConfiguration clientOverrides) {
         return ElastiCacheClient.builder()
                                 .credentialsProvider(credentialsProvider)
+                                .httpClient(httpClient)
+                                .overrideConfiguration(clientOverrides)
                                 .region(region)
                                 .build();
     }
@@ -245,12 +238,20 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS CloudFormation client
      */
     @Bean(destroyMethod = "close")
-    public CloudFormationClient cloudFormationClient(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public CloudFormationClient cloudFormationClient(AwsCredentialsProvider credentialsProvider,
+                                                     Region region,
+                                                     SdkHttpClient httpClient,
+                                                     ClientOverrideConfiguration clientOverrides) {
         return CloudFormationClient.builder()
                                    .credentialsProvider(credentialsProvider)
+                                   .httpClient(httpClient)
+                                   .overrideConfiguration(clientOverrides)
                                    .region(region)
                                    .build();
     }
@@ -260,13 +261,136 @@ public class CleanerConfig {
      *
      * @param credentialsProvider The AWS credentials provider
      * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
      * @return The AWS CloudWatch Logs client
      */
     @Bean(destroyMethod = "close")
-    public CloudWatchLogsClient cloudWatch(AwsCredentialsProvider credentialsProvider, Region region) {
+    @Lazy
+    public CloudWatchLogsClient cloudWatch(AwsCredentialsProvider credentialsProvider,
+                                           Region region,
+                                           SdkHttpClient httpClient,
+                                           ClientOverrideConfiguration clientOverrides) {
         return CloudWatchLogsClient.builder()
                                    .credentialsProvider(credentialsProvider)
+                                   .httpClient(httpClient)
+                                   .overrideConfiguration(clientOverrides)
                                    .region(region)
                                    .build();
     }
+
+    /**
+     * Creates an AWS Resource Groups Tagging API client, used when tag rules are configured.
+     *
+     * @param credentialsProvider The AWS credentials provider
+     * @param region              The AWS region to use
+     * @param httpClient          The shared HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
+     * @return The AWS Resource Groups Tagging API client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public ResourceGroupsTaggingApiClient taggingClient(AwsCredentialsProvider credentialsProvider,
+                                                        Region region,
+                                                        SdkHttpClient httpClient,
+                                                        ClientOverrideConfiguration clientOverrides) {
+        return ResourceGroupsTaggingApiClient.builder()
+                                             .credentialsProvider(credentialsProvider)
+                                             .httpClient(httpClient)
+                                             .overrideConfiguration(clientOverrides)
+                                             .region(region)
+                                             .build();
+    }
+
+    /**
+     * Creates an asynchronous AWS DynamoDB client, used when cleaning with cleaner.async=true.
+     *
+     * @param credentialsProvider The AWS credentials provider
+     * @param region              The AWS region to use
+     * @param asyncHttpClient     The shared asynchronous HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
+     * @return The asynchronous AWS DynamoDB client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public DynamoDbAsyncClient dynamoDBAsyncClient(AwsCredentialsProvider credentialsProvider,
+                                                   Region region,
+                                                   SdkAsyncHttpClient asyncHttpClient,
+                                                   ClientOverrideConfiguration clientOverrides) {
+        return DynamoDbAsyncClient.builder()
+                                  .credentialsProvider(credentialsProvider)
+                                  .httpClient(asyncHttpClient)
+                                  .overrideConfiguration(clientOverrides)
+                                  .region(region)
+                                  .build();
+    }
+
+    /**
+     * Creates an asynchronous AWS SNS client, used when cleaning with cleaner.async=true.
+     *
+     * @param credentialsProvider The AWS credentials provider
+     * @param region              The AWS region to use
+     * @param asyncHttpClient     The shared asynchronous HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
+     * @return The asynchronous AWS SNS client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public SnsAsyncClient snsAsyncClient(AwsCredentialsProvider credentialsProvider,
+                                         Region region,
+                                         SdkAsyncHttpClient asyncHttpClient,
+                                         ClientOverrideConfiguration clientOverrides) {
+        return SnsAsyncClient.builder()
+                             .credentialsProvider(credentialsProvider)
+                             .httpClient(asyncHttpClient)
+                             .overrideConfiguration(clientOverrides)
+                             .region(region)
+                             .build();
+    }
+
+    /**
+     * Creates an asynchronous AWS SQS client, used when cleaning with cleaner.async=true.
+     *
+     * @param credentialsProvider The AWS credentials provider
+     * @param region              The AWS region to use
+     * @param asyncHttpClient     The shared asynchronous HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
+     * @return The asynchronous AWS SQS client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public SqsAsyncClient sqsAsyncClient(AwsCredentialsProvider credentialsProvider,
+                                         Region region,
+                                         SdkAsyncHttpClient asyncHttpClient,
+                                         ClientOverrideConfiguration clientOverrides) {
+        return SqsAsyncClient.builder()
+                             .credentialsProvider(credentialsProvider)
+                             .httpClient(asyncHttpClient)
+                             .overrideConfiguration(clientOverrides)
+                             .region(region)
+                             .build();
+    }
+
+    /**
+     * Creates an asynchronous AWS CloudWatch Logs client, used when cleaning with cleaner.async=true.
+     *
+     * @param credentialsProvider The AWS credentials provider
+     * @param region              The AWS region to use
+     * @param asyncHttpClient     The shared asynchronous HTTP client
+     * @param clientOverrides     The interceptors shared by every client of the region
+     * @return The asynchronous AWS CloudWatch Logs client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public CloudWatchLogsAsyncClient cloudWatchAsync(AwsCredentialsProvider credentialsProvider,
+                                                     Region region,
+                                                     SdkAsyncHttpClient asyncHttpClient,
+                                                     ClientOverrideConfiguration clientOverrides) {
+        return CloudWatchLogsAsyncClient.builder()
+                                        .credentialsProvider(credentialsProvider)
+                                        .httpClient(asyncHttpClient)
+                                        .overrideConfiguration(clientOverrides)
+                                        .region(region)
+                                        .build();
+    }
 }
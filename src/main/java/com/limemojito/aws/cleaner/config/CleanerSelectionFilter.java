@@ -0,0 +1,132 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.config;
+
+import com.limemojito.aws.cleaner.Main;
+import com.limemojito.aws.cleaner.ResourceCleaner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter.stripCommaSeparated;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * Component scan filter that excludes the resource cleaners not selected by {@code cleaner.include} and
+ * {@code cleaner.exclude}.
+ * Cleaners are named by their class name without the "ResourceCleaner" or "Cleaner" suffix, ignoring case, so
+ * {@code cleaner.include=s3,loggroup} selects {@code S3ResourceCleaner} and {@code LogGroupCleaner}.  An empty include
+ * list selects every cleaner, and {@code cleaner.include=none} selects none.  A name that does not match a cleaner
+ * fails startup, listing the valid names, so a typo neither cleans almost nothing nor deletes resources that were meant
+ * to be protected.  Excluded cleaners are never created, so neither are the clients only they use.
+ */
+@Slf4j
+public class CleanerSelectionFilter implements TypeFilter, EnvironmentAware {
+    private static final String NONE = "none";
+    private final TypeFilter cleanerType = new AssignableTypeFilter(ResourceCleaner.class);
+    private List<String> include = List.of();
+    private List<String> exclude = List.of();
+
+    /**
+     * Reads the cleaner selection from the environment, checking each name against the cleaners available.
+     *
+     * @param environment The environment containing the cleaner.include and cleaner.exclude settings
+     * @throws IllegalArgumentException if a name does not match a cleaner
+     */
+    @Override
+    public void setEnvironment(Environment environment) {
+        final Set<String> available = availableCleaners(environment);
+        this.include = validate("cleaner.include", environment.getProperty("cleaner.include", ""), available);
+        this.exclude = validate("cleaner.exclude", environment.getProperty("cleaner.exclude", ""), available);
+    }
+
+    /**
+     * Matches resource cleaners that have not been selected, excluding them from the component scan.
+     *
+     * @param metadataReader        The metadata of the scanned class
+     * @param metadataReaderFactory Factory for metadata of super classes and interfaces
+     * @return true if the class is a resource cleaner that should not take part
+     * @throws IOException if the class metadata can not be read
+     */
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+            throws IOException {
+        if (!cleanerType.match(metadataReader, metadataReaderFactory)) {
+            return false;
+        }
+        final String className = ClassUtils.getShortName(metadataReader.getClassMetadata().getClassName());
+        final String name = normaliseName(className);
+        final boolean selected = (include.isEmpty() || include.contains(name)) && !exclude.contains(name);
+        if (!selected) {
+            log.info("Excluding cleaner {}", className);
+        }
+        return !selected;
+    }
+
+    private static Set<String> availableCleaners(Environment environment) {
+        final ClassPathScanningCandidateComponentProvider scanner =
+                new ClassPathScanningCandidateComponentProvider(false, environment);
+        scanner.addIncludeFilter(new AssignableTypeFilter(ResourceCleaner.class));
+        return scanner.findCandidateComponents(ClassUtils.getPackageName(Main.class))
+                      .stream()
+                      .map(cleaner -> normaliseName(ClassUtils.getShortName(cleaner.getBeanClassName())))
+                      .collect(toCollection(TreeSet::new));
+    }
+
+    private static List<String> validate(String property, String commaSeparated, Set<String> available) {
+        final List<String> names = stripCommaSeparated(commaSeparated).stream()
+                                                                       .filter(name -> !name.isEmpty())
+                                                                       .map(CleanerSelectionFilter::normaliseName)
+                                                                       .toList();
+        final List<String> unknown = names.stream()
+                                          .filter(name -> !name.equals(NONE) && !available.contains(name))
+                                          .toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException(format("%s has unknown cleaners %s, valid cleaners are %s or %s",
+                                                      property,
+                                                      unknown,
+                                                      available,
+                                                      NONE));
+        }
+        return names;
+    }
+
+    private static String normaliseName(String name) {
+        final String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith("resourcecleaner")) {
+            return lower.substring(0, lower.length() - "resourcecleaner".length());
+        }
+        if (lower.endsWith("cleaner")) {
+            return lower.substring(0, lower.length() - "cleaner".length());
+        }
+        return lower;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.auth.StsAssumeRoleCredentialsProvider;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Spring configuration for the credentials of one account being cleaned.
+ * The context built from this configuration is a child of the {@link SessionConfig} context and the parent of each
+ * region's {@link CleanerConfig} context, so the account's role is assumed once and shared by all regions.
+ */
+@Configuration(proxyBeanMethods = false)
+@Slf4j
+public class CredentialsConfig {
+
+    /**
+     * Creates an AWS credentials provider for the account.
+     * If a role ARN is provided, assumes that role using the session's token service, which holds the MFA session
+     * when an MFA device is configured.  The role is assumed again before the credentials expire so that long running
+     * daemons keep working.
+     *
+     * @param roleArn      The ARN of the role to assume, if any
+     * @param tokenService The AWS Security Token Service client
+     * @return An AWS credentials provider
+     */
+    @Bean(destroyMethod = "close")
+    public AwsCredentialsProvider credentialsProvider(@Value("${cleaner.role.arn}") String roleArn,
+                                                      StsClient tokenService) {
+        if (!isBlank(roleArn)) {
+            log.info("Preparing credentials for Role: {}", roleArn);
+            final StsAssumeRoleCredentialsProvider provider =
+                    StsAssumeRoleCredentialsProvider.builder()
+                                                    .stsClient(tokenService)
+                                                    .refreshRequest(r -> r.roleArn(roleArn)
+                                                                          .roleSessionName("aws-cleaner"))
+                                                    .build();
+            // assume the role now so that an account that can not be accessed fails before cleaning starts.
+            provider.resolveCredentials();
+            return provider;
+        } else {
+            return DefaultCredentialsProvider.builder().build();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.config;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.services.sts.model.Credentials;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static java.lang.String.format;
+
+/**
+ * Provides the session credentials obtained once from an MFA code with GetSessionToken.
+ * Every role in the run is assumed with these credentials, so the MFA code is entered and used once.  The session
+ * can not be renewed without a new code, so once it expires resolving credentials fails with a clear message rather
+ * than prompting from whichever thread happens to refresh an assumed role.
+ */
+public class MfaSessionCredentialsProvider implements AwsCredentialsProvider {
+    private final AwsSessionCredentials credentials;
+    private final Instant expiration;
+    private final Clock clock;
+
+    /**
+     * Constructs a provider of the session credentials.
+     *
+     * @param credentials The credentials returned by GetSessionToken
+     */
+    public MfaSessionCredentialsProvider(Credentials credentials) {
+        this(credentials, Clock.systemUTC());
+    }
+
+    MfaSessionCredentialsProvider(Credentials credentials, Clock clock) {
+        this.credentials = AwsSessionCredentials.create(credentials.accessKeyId(),
+                                                        credentials.secretAccessKey(),
+                                                        credentials.sessionToken());
+        this.expiration = credentials.expiration();
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the session credentials.
+     *
+     * @return The session credentials
+     * @throws IllegalStateException if the MFA session has expired
+     */
+    @Override
+    public AwsCredentials resolveCredentials() {
+        if (expiration != null && !clock.instant().isBefore(expiration)) {
+            throw new IllegalStateException(format("MFA session expired at %s, run the cleaner again to enter a new code",
+                                                   expiration));
+        }
+        return credentials;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.config;
+
+import com.limemojito.aws.cleaner.metrics.ApiMetrics;
+import com.limemojito.aws.cleaner.metrics.RunReport;
+import com.limemojito.aws.cleaner.metrics.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.PropertySource;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.model.Credentials;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Spring configuration for the session shared by every account and region being cleaned.
+ * The context built from this configuration is the root of the run.  Each account has a child context built from
+ * {@link CredentialsConfig}, which in turn is the parent of each region's {@link CleanerConfig} context.
+ * <p>
+ * The HTTP clients are also defined here so that every AWS client in every account and region shares one tuned
+ * connection pool, sized by the cleaner.http.* properties, rather than each building its own default pool.  The
+ * {@link ApiMetrics} registry is likewise shared so that one export covers the whole run.
+ */
+@Configuration(proxyBeanMethods = false)
+@PropertySource("classpath:/cleaner.properties")
+@Slf4j
+public class SessionConfig {
+
+    /**
+     * Creates the registry of AWS API calls shared by every account and region in the run.
+     *
+     * @param file   File to export the metrics to after each run, empty to only log the busiest APIs
+     * @param format Format of the exported file, prometheus or json
+     * @return The run's API metrics
+     */
+    @Bean
+    public ApiMetrics apiMetrics(@Value("${cleaner.metrics.file}") String file,
+                                 @Value("${cleaner.metrics.format}") String format) {
+        return new ApiMetrics(isBlank(file) ? null : Path.of(file),
+                              ApiMetrics.Format.valueOf(format.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Creates the report of each cleaner's outcome, written after each run.
+     *
+     * @param file File to write the report to as JSON after each run, empty to only log
+     * @return The run report
+     */
+    @Bean
+    public RunReport runReport(@Value("${cleaner.report.file}") String file) {
+        return new RunReport(isBlank(file) ? null : Path.of(file));
+    }
+
+    /**
+     * Creates the tracer of each run, shared by every account and region.
+     *
+     * @param file File to write the spans of each run to as OTLP JSON, empty to disable tracing
+     * @return The run tracer
+     */
+    @Bean
+    public Tracer tracer(@Value("${cleaner.trace.file}") String file) {
+        return new Tracer(isBlank(file) ? null : Path.of(file));
+    }
+
+    /**
+     * Creates the HTTP client shared by every synchronous AWS client in the run.
+     *
+     * @param maxConnections Maximum open connections across all AWS clients
+     * @param connectionTtl  ISO-8601 duration a pooled connection may live before it is closed
+     * @param keepAlive      true to enable TCP keep-alive on pooled connections
+     * @param acquireTimeout ISO-8601 duration to wait for a pooled connection before failing
+     * @param socketTimeout  ISO-8601 duration to wait for data on an open connection before failing
+     * @return The shared HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public SdkHttpClient httpClient(@Value("${cleaner.http.max.connections}") int maxConnections,
+                                    @Value("${cleaner.http.connection.ttl}") String connectionTtl,
+                                    @Value("${cleaner.http.keep.alive}") boolean keepAlive,
+                                    @Value("${cleaner.http.acquire.timeout}") String acquireTimeout,
+                                    @Value("${cleaner.http.socket.timeout}") String socketTimeout) {
+        log.debug("HTTP pool of {} connections", maxConnections);
+        return ApacheHttpClient.builder()
+                               .maxConnections(maxConnections)
+                               .connectionTimeToLive(Duration.parse(connectionTtl))
+                               .tcpKeepAlive(keepAlive)
+                               .connectionAcquisitionTimeout(Duration.parse(acquireTimeout))
+                               .socketTimeout(Duration.parse(socketTimeout))
+                               .build();
+    }
+
+    /**
+     * Creates the HTTP client shared by every asynchronous AWS client in the run.  It is only built when
+     * cleaner.async is enabled and a cleaner asks for an asynchronous client.
+     *
+     * @param maxConnections Maximum concurrent connections across all asynchronous AWS clients
+     * @param connectionTtl  ISO-8601 duration a pooled connection may live before it is closed
+     * @param keepAlive      true to enable TCP keep-alive on pooled connections
+     * @param acquireTimeout ISO-8601 duration to wait for a pooled connection before failing
+     * @param socketTimeout  ISO-8601 duration to wait to read or write on an open connection before failing
+     * @return The shared asynchronous HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public SdkAsyncHttpClient asyncHttpClient(@Value("${cleaner.http.max.connections}") int maxConnections,
+                                              @Value("${cleaner.http.connection.ttl}") String connectionTtl,
+                                              @Value("${cleaner.http.keep.alive}") boolean keepAlive,
+                                              @Value("${cleaner.http.acquire.timeout}") String acquireTimeout,
+                                              @Value("${cleaner.http.socket.timeout}") String socketTimeout) {
+        final Duration socket = Duration.parse(socketTimeout);
+        return NettyNioAsyncHttpClient.builder()
+                                      .maxConcurrency(maxConnections)
+                                      .connectionTimeToLive(Duration.parse(connectionTtl))
+                                      .tcpKeepAlive(keepAlive)
+                                      .connectionAcquisitionTimeout(Duration.parse(acquireTimeout))
+                                      .readTimeout(socket)
+                                      .writeTimeout(socket)
+                                      .build();
+    }
+
+    /**
+     * Creates an AWS Security Token Service client used to assume the role of each account.
+     * If an MFA device is configured, the code is prompted for and exchanged once for session credentials that the
+     * client then uses, so every role assumed by the run is MFA authenticated with a single code.  The session can not
+     * be renewed without a new code, so assuming a role fails once it expires.
+     *
+     * @param regionName The AWS region to call STS in
+     * @param mfaArn     The ARN of the MFA device, if any
+     * @param httpClient The shared HTTP client
+     * @return The AWS Security Token Service client
+     */
+    @Bean(destroyMethod = "close")
+    public StsClient tokenService(@Value("${cleaner.region}") String regionName,
+                                  @Value("${cleaner.mfa.arn}") String mfaArn,
+                                  SdkHttpClient httpClient) {
+        final Region region = Region.of(regionName);
+        if (isBlank(mfaArn)) {
+            return StsClient.builder()
+                            .httpClient(httpClient)
+                            .region(region)
+                            .build();
+        }
+        final String mfaCode = promptMfaCode();
+        log.info("Using MFA code with {}", mfaArn);
+        final Credentials credentials;
+        try (StsClient mfaClient = StsClient.builder().httpClient(httpClient).region(region).build()) {
+            credentials = mfaClient.getSessionToken(r -> r.serialNumber(mfaArn).tokenCode(mfaCode)).credentials();
+        }
+        log.info("MFA session expires at {}", credentials.expiration());
+        return StsClient.builder()
+                        .credentialsProvider(new MfaSessionCredentialsProvider(credentials))
+                        .httpClient(httpClient)
+                        .region(region)
+                        .build();
+    }
+
+    private static String promptMfaCode() {
+        System.out.print("Enter MFA code: ");
+        System.out.flush();
+        try {
+            final String line = new BufferedReader(new InputStreamReader(System.in)).readLine();
+            if (isBlank(line)) {
+                throw new IllegalStateException("An MFA code is required when cleaner.mfa.arn is set");
+            }
+            return line.trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
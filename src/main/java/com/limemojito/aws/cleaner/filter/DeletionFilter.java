@@ -17,18 +17,55 @@
 
 package com.limemojito.aws.cleaner.filter;
 
+import com.limemojito.aws.cleaner.CandidateResource;
+
 /**
  * Interface for filtering AWS resources to determine which ones should be deleted.
  * Implementations of this interface provide the logic to decide whether a specific
- * AWS resource should be deleted based on its physical ID.
+ * AWS resource should be deleted based on its physical ID and the metadata returned when it was listed.
+ * Every filter bean is run by the {@link PhysicalDeletionFilter} chain, cheapest first, and a resource is only
+ * deleted if every filter agrees.
  */
 @FunctionalInterface
 public interface DeletionFilter {
+    /**
+     * Cost of a filter that only examines the candidate in memory.
+     */
+    int LOCAL_COST = 1;
+    /**
+     * Cost of a filter that loads data for every resource in the region with a few bulk calls.
+     */
+    int BULK_COST = 10;
+    /**
+     * Cost of a filter that needs many remote calls, such as per stack or per resource.
+     */
+    int REMOTE_COST = 100;
+
+    /**
+     * Determines whether a resource found by a cleaner should be deleted.
+     *
+     * @param candidate The AWS resource to evaluate, with any metadata from its listing
+     * @return true if the resource should be deleted, false otherwise
+     */
+    boolean shouldDelete(CandidateResource candidate);
+
     /**
      * Determines whether a resource with the given physical ID should be deleted.
      *
      * @param physicalId The physical ID of the AWS resource to evaluate
      * @return true if the resource should be deleted, false otherwise
      */
-    boolean shouldDelete(String physicalId);
+    default boolean shouldDelete(String physicalId) {
+        return shouldDelete(CandidateResource.of(physicalId));
+    }
+
+    /**
+     * The relative cost of this filter, used to run cheaper filters first so that a resource kept by a cheap check
+     * never reaches an expensive one.
+     *
+     * @return The relative cost, {@link #REMOTE_COST} unless the filter declares otherwise
+     */
+    default int getCost() {
+        return REMOTE_COST;
+    }
 }
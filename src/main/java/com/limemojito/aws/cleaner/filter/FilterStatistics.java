@@ -0,0 +1,41 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import java.time.Duration;
+
+/**
+ * How a filter in the {@link PhysicalDeletionFilter} chain performed during a clean.
+ *
+ * @param filter    The simple name of the filter class
+ * @param cost      The filter's declared relative cost
+ * @param evaluated The number of resources the filter checked
+ * @param kept      The number of resources the filter kept, ending the chain for that resource
+ * @param time      Total time spent in the filter
+ */
+public record FilterStatistics(String filter, int cost, long evaluated, long kept, Duration time) {
+
+    /**
+     * The number of resources the filter passed on to the rest of the chain.
+     *
+     * @return Resources the filter allowed to be deleted
+     */
+    public long passed() {
+        return evaluated - kept;
+    }
+}
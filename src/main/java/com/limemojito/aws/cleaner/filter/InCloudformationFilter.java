@@ -17,67 +17,49 @@
 
 package com.limemojito.aws.cleaner.filter;
 
-import com.limemojito.aws.cleaner.resource.Throttle;
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
-import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
-import software.amazon.awssdk.services.cloudformation.model.DescribeStackResourcesResponse;
-import software.amazon.awssdk.services.cloudformation.model.StackResource;
-
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 /**
  * Filter implementation that determines if a resource should be deleted based on whether
  * it is part of a CloudFormation stack.
  * Resources that are managed by CloudFormation stacks are preserved, while standalone
- * resources are candidates for deletion.
+ * resources are candidates for deletion.  Ownership is checked against the {@link StackOwnershipIndex}
+ * rather than asking CloudFormation about each resource.
  */
 @Component
+@Lazy
 @Slf4j
 @RequiredArgsConstructor
 public class InCloudformationFilter implements DeletionFilter {
-    private final CloudFormationClient cloudFormation;
+    private final StackOwnershipIndex stackOwnership;
 
     /**
      * Determines if a resource should be deleted by checking if it belongs to a CloudFormation stack.
-     * Resources that are part of a CloudFormation stack are preserved.
+     * Resources that are part of a CloudFormation stack are preserved.  Both the physical ID and, when known, the ARN
+     * are checked as stacks record some resources by name and others by ARN.
      *
-     * @param physicalId The physical ID of the AWS resource to evaluate
+     * @param candidate The AWS resource to evaluate
      * @return true if the resource should be deleted (not in a CloudFormation stack),
      * false if it should be preserved (part of a CloudFormation stack)
      */
     @Override
-    public boolean shouldDelete(String physicalId) {
-        final AtomicBoolean resourceInCloudformationStack = new AtomicBoolean();
-        Throttle.performWithThrottle(() -> {
-            final boolean inCf = isInCloudformation(physicalId);
-            resourceInCloudformationStack.set(inCf);
-            log.debug("is {} in cloudformation? {}", physicalId, inCf);
-        });
-        return !resourceInCloudformationStack.get();
+    public boolean shouldDelete(CandidateResource candidate) {
+        final boolean inCf = stackOwnership.isOwned(candidate.id())
+                || (candidate.arn() != null && stackOwnership.isOwned(candidate.arn()));
+        log.debug("is {} in cloudformation? {}", candidate.id(), inCf);
+        return !inCf;
     }
 
-    private boolean isInCloudformation(String physicalId) {
-        try {
-            final DescribeStackResourcesResponse describeStackResourcesResponse = cloudFormation.describeStackResources(
-                    r -> r.physicalResourceId(physicalId));
-            final Set<String> stacks = describeStackResourcesResponse.stackResources()
-                                                                     .stream()
-                                                                     .map(StackResource::stackName)
-                                                                     .collect(Collectors.toSet());
-            log.debug("{} is in stack(s) {}", physicalId, stacks);
-            return describeStackResourcesResponse.hasStackResources();
-        } catch (CloudFormationException e) {
-            if (e.getMessage().contains("Stack") && e.getMessage().contains("does not exist")) {
-                return false;
-            } else {
-                throw e;
-            }
-        }
+    /**
+     * {@inheritDoc}
+     * Building the ownership index lists the resources of every stack in the region.
+     */
+    @Override
+    public int getCost() {
+        return REMOTE_COST;
     }
-
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CandidateResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+import static com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter.stripCommaSeparated;
+
+/**
+ * Filter implementation that keeps resources whose physical ID matches a cleaner.skip.names rule.
+ * See {@link NameMatcher} for the rule syntax.
+ */
+@Component
+@Lazy
+@Slf4j
+public class NameFilter implements DeletionFilter {
+    private final NameMatcher notContainsNames;
+
+    /**
+     * Constructs a new NameFilter.
+     *
+     * @param notContainsNames Comma separated name rules to preserve
+     */
+    public NameFilter(@Value("${cleaner.skip.names:}") String notContainsNames) {
+        this.notContainsNames = new NameMatcher(stripCommaSeparated(notContainsNames));
+    }
+
+    /**
+     * Determines if a resource should be deleted by matching its physical ID against the skip name rules.
+     *
+     * @param candidate The AWS resource to evaluate
+     * @return true if no rule matches the resource
+     */
+    @Override
+    public boolean shouldDelete(CandidateResource candidate) {
+        final Optional<String> rule = notContainsNames.firstMatch(candidate.id());
+        rule.ifPresent(matched -> log.info("{} matches cleaner.skip.names rule {}", candidate.id(), matched));
+        return rule.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Names are matched in memory.
+     */
+    @Override
+    public int getCost() {
+        return LOCAL_COST;
+    }
+}
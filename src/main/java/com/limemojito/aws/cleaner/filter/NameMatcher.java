@@ -0,0 +1,240 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Matches resource IDs against a fixed set of name rules in a single pass over each ID.
+ * A rule is one of:
+ * <ul>
+ *     <li>a plain fragment, matching IDs that contain it,</li>
+ *     <li>{@code glob:<pattern>}, matching whole IDs where {@code *} is any text and {@code ?} any character,</li>
+ *     <li>{@code regex:<pattern>}, matching IDs containing a match of the regular expression.</li>
+ * </ul>
+ * Plain fragments, usually the bulk of the rules, are compiled into an Aho-Corasick automaton so that the cost of a
+ * match depends on the length of the ID rather than the number of fragments.  Transitions on ASCII characters, which
+ * make up nearly all AWS IDs, are precomputed into a table so that following them is a single array lookup.
+ */
+public final class NameMatcher {
+    private static final String GLOB = "glob:";
+    private static final String REGEX = "regex:";
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int ASCII = 128;
+    private static final int MAX_TABLE_STATES = 16_384;
+    private final List<String> fragments = new ArrayList<>();
+    private final List<Rule> patterns = new ArrayList<>();
+    private char[][] labels;
+    private int[][] targets;
+    private int[] failure;
+    private int[] output;
+    private int[] asciiNext;
+
+    private record Rule(String text, Pattern pattern) {
+    }
+
+    /**
+     * Compiles a matcher from a collection of rules.
+     *
+     * @param rules The rules to match
+     * @throws java.util.regex.PatternSyntaxException if a regex rule is invalid
+     */
+    public NameMatcher(Collection<String> rules) {
+        for (String rule : rules) {
+            if (rule.startsWith(GLOB)) {
+                patterns.add(new Rule(rule, Pattern.compile(globToRegex(rule.substring(GLOB.length())))));
+            } else if (rule.startsWith(REGEX)) {
+                patterns.add(new Rule(rule, Pattern.compile(rule.substring(REGEX.length()))));
+            } else {
+                fragments.add(rule);
+            }
+        }
+        buildAutomaton();
+    }
+
+    /**
+     * Finds the first rule that matches the ID.  Fragments are checked before glob and regex rules.
+     *
+     * @param id The resource ID to check
+     * @return The matching rule as it was supplied, or empty if no rule matches
+     */
+    public Optional<String> firstMatch(String id) {
+        int state = ROOT;
+        if (output[state] != NONE) {
+            return Optional.of(fragments.get(output[state]));
+        }
+        for (int i = 0; i < id.length(); i++) {
+            state = next(state, id.charAt(i));
+            if (output[state] != NONE) {
+                return Optional.of(fragments.get(output[state]));
+            }
+        }
+        for (Rule rule : patterns) {
+            if (rule.pattern().matcher(id).find()) {
+                return Optional.of(rule.text());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Determines if any rule matches the ID.
+     *
+     * @param id The resource ID to check
+     * @return true if a rule matches
+     */
+    public boolean matches(String id) {
+        return firstMatch(id).isPresent();
+    }
+
+    /**
+     * Checks if there are no rules to match.
+     *
+     * @return true if no ID can match
+     */
+    public boolean isEmpty() {
+        return fragments.isEmpty() && patterns.isEmpty();
+    }
+
+    private int next(int state, char c) {
+        if (c < ASCII && asciiNext != null) {
+            return asciiNext[state * ASCII + c];
+        }
+        return follow(state, c);
+    }
+
+    private int follow(int state, char c) {
+        int current = state;
+        int target = transition(current, c);
+        while (target == NONE && current != ROOT) {
+            current = failure[current];
+            target = transition(current, c);
+        }
+        return target == NONE ? ROOT : target;
+    }
+
+    private int transition(int state, char c) {
+        final int index = Arrays.binarySearch(labels[state], c);
+        return index < 0 ? NONE : targets[state][index];
+    }
+
+    private void buildAutomaton() {
+        // build the trie with sorted edges, then flatten to arrays for matching.
+        final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        final List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(NONE);
+        for (int f = 0; f < fragments.size(); f++) {
+            int state = ROOT;
+            for (char c : fragments.get(f).toCharArray()) {
+                Integer child = trie.get(state).get(c);
+                if (child == null) {
+                    child = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(NONE);
+                    trie.get(state).put(c, child);
+                }
+                state = child;
+            }
+            if (ends.get(state) == NONE) {
+                ends.set(state, f);
+            }
+        }
+        final int size = trie.size();
+        labels = new char[size][];
+        targets = new int[size][];
+        failure = new int[size];
+        output = new int[size];
+        for (int state = 0; state < size; state++) {
+            final TreeMap<Character, Integer> edges = trie.get(state);
+            labels[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i++] = edge.getValue();
+            }
+            output[state] = ends.get(state);
+        }
+        linkFailures();
+        tabulateAscii();
+    }
+
+    private void linkFailures() {
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            for (int i = 0; i < labels[state].length; i++) {
+                final int child = targets[state][i];
+                failure[child] = next(failure[state], labels[state][i]);
+                if (output[child] == NONE) {
+                    // a fragment ending here may end with a shorter fragment.
+                    output[child] = output[failure[child]];
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private void tabulateAscii() {
+        if (labels.length > MAX_TABLE_STATES) {
+            // very large rule sets keep the compact automaton rather than a table of several megabytes.
+            return;
+        }
+        final int[] table = new int[labels.length * ASCII];
+        for (int state = 0; state < labels.length; state++) {
+            for (char c = 0; c < ASCII; c++) {
+                table[state * ASCII + c] = follow(state, c);
+            }
+        }
+        asciiNext = table;
+    }
+
+    private static String globToRegex(String glob) {
+        final StringBuilder regex = new StringBuilder("^");
+        final StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.append('$').toString();
+    }
+}
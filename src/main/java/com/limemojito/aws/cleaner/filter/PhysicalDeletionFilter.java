@@ -17,49 +17,169 @@
 
 package com.limemojito.aws.cleaner.filter;
 
+import com.limemojito.aws.cleaner.CandidateResource;
+import com.limemojito.aws.cleaner.CleanFinishedEvent;
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import com.limemojito.aws.cleaner.metrics.FilterEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.split;
 
 /**
- * Interface for filtering AWS resources to determine which ones should be deleted.
- * Implementations of this interface provide the logic to decide whether a specific
- * AWS resource should be deleted based on its physical ID.
+ * Decides which AWS resources should be deleted by running every {@link DeletionFilter} in order of their declared
+ * cost, cheapest first.  The chain stops at the first filter that keeps a resource, so a resource kept by a local
+ * name rule never costs a remote call.
+ * <p>
+ * The number of resources each filter checked and kept, and the time spent in it, is recorded for each clean and
+ * logged when the clean finishes.  Each decision is also recorded as a {@link FilterEvent} for Java Flight Recorder.
  */
 @Service
+@Lazy
 @Slf4j
 public class PhysicalDeletionFilter {
-    private final InCloudformationFilter cloudformation;
-    private final List<String> notContainsNames;
+    private final List<Link> chain;
 
-    public PhysicalDeletionFilter(InCloudformationFilter cloudformation,
-                                  @Value("${cleaner.skip.names:}") String notContainsNames) {
-        this.cloudformation = cloudformation;
-        this.notContainsNames = stripCommaSeparated(notContainsNames);
+    private static final class Link {
+        private final DeletionFilter filter;
+        private final String name;
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder kept = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Link(DeletionFilter filter) {
+            this.filter = filter;
+            this.name = ClassUtils.getUserClass(filter).getSimpleName();
+        }
+
+        private boolean shouldDelete(CandidateResource candidate) {
+            final long start = System.nanoTime();
+            final FilterEvent event = new FilterEvent();
+            event.begin();
+            try {
+                final boolean delete = filter.shouldDelete(candidate);
+                if (!delete) {
+                    kept.increment();
+                }
+                event.commit(name, candidate.id(), !delete);
+                return delete;
+            } finally {
+                evaluated.increment();
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        private FilterStatistics statistics() {
+            return new FilterStatistics(name,
+                                        filter.getCost(),
+                                        evaluated.sum(),
+                                        kept.sum(),
+                                        Duration.ofNanos(nanos.sum()));
+        }
+
+        private void reset() {
+            evaluated.reset();
+            kept.reset();
+            nanos.reset();
+        }
+    }
+
+    /**
+     * Constructs a new PhysicalDeletionFilter.
+     *
+     * @param filters The filters to chain, in any order
+     */
+    public PhysicalDeletionFilter(List<DeletionFilter> filters) {
+        this.chain = filters.stream()
+                            .sorted(Comparator.comparingInt(DeletionFilter::getCost)
+                                              .thenComparing(filter -> ClassUtils.getUserClass(filter).getName()))
+                            .map(Link::new)
+                            .toList();
+        log.debug("Filter chain {}", chain.stream().map(link -> link.name).toList());
+    }
+
+    /**
+     * Determines whether a resource found by a cleaner should be deleted.
+     *
+     * @param candidate The AWS resource to evaluate
+     * @return true if every filter allows the resource to be deleted, false otherwise
+     */
+    public boolean shouldDelete(CandidateResource candidate) {
+        return keptBy(candidate).isEmpty();
+    }
+
+    /**
+     * Finds the filter that keeps a resource found by a cleaner.
+     *
+     * @param candidate The AWS resource to evaluate
+     * @return The name of the first filter that keeps the resource, or empty if the resource should be deleted
+     */
+    public Optional<String> keptBy(CandidateResource candidate) {
+        for (Link link : chain) {
+            if (!link.shouldDelete(candidate)) {
+                return Optional.of(link.name);
+            }
+        }
+        return Optional.empty();
     }
 
     /**
      * Determines whether a resource with the given physical ID should be deleted.
      *
      * @param physicalId The physical ID of the AWS resource to evaluate
-     * @return true if the resource should be deleted, false otherwise
+     * @return true if every filter allows the resource to be deleted, false otherwise
      */
     public boolean shouldDelete(String physicalId) {
-        if (cloudformation.shouldDelete(physicalId)) {
-            final boolean delete = notContainsNames.stream().noneMatch(physicalId::contains);
-            if (!delete) {
-                log.info("{} is in cleaner.skip.names {}", physicalId, notContainsNames);
-            }
-            return delete;
+        return shouldDelete(CandidateResource.of(physicalId));
+    }
+
+    /**
+     * Reports how each filter performed since the current clean started.
+     *
+     * @return Statistics for each filter, in the order they are run
+     */
+    public List<FilterStatistics> getStatistics() {
+        return chain.stream().map(Link::statistics).toList();
+    }
+
+    /**
+     * Clears the statistics as a clean starts.
+     *
+     * @param event The run that is starting
+     */
+    @EventListener
+    public void onCleanStarted(CleanStartedEvent event) {
+        chain.forEach(Link::reset);
+    }
+
+    /**
+     * Logs the statistics of the clean that finished.
+     *
+     * @param event The run that finished
+     */
+    @EventListener
+    public void onCleanFinished(CleanFinishedEvent event) {
+        for (FilterStatistics statistics : getStatistics()) {
+            log.info("{} filter {} (cost {}): {} checked, {} kept, {}ms",
+                     event.region(),
+                     statistics.filter(),
+                     statistics.cost(),
+                     statistics.evaluated(),
+                     statistics.kept(),
+                     statistics.time().toMillis());
         }
-        return false;
     }
 
     /**
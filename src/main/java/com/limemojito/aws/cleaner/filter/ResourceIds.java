@@ -0,0 +1,93 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import java.net.URI;
+import java.util.Objects;
+
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+import static org.apache.commons.lang3.StringUtils.split;
+
+/**
+ * Conversions between the different forms AWS uses to identify the same resource.
+ */
+final class ResourceIds {
+    private static final int ARN_PARTS = 6;
+    private static final int NORMALISED_PARTS = 5;
+
+    private ResourceIds() {
+    }
+
+    /**
+     * Converts a physical resource ID to the form used for comparison.  ARNs lose their partition and any trailing
+     * wildcard, and SQS queue URLs become the equivalent queue ARN.  Other IDs are unchanged.
+     *
+     * @param physicalId The physical ID, ARN or URL of the AWS resource
+     * @return The normalised ID
+     */
+    static String normalise(String physicalId) {
+        if (physicalId.startsWith("arn:")) {
+            final String[] parts = physicalId.split(":", ARN_PARTS);
+            if (parts.length == ARN_PARTS) {
+                return String.join(":", "arn", parts[2], parts[3], parts[4], removeEnd(parts[5], ":*"));
+            }
+        } else if (physicalId.startsWith("https://") || physicalId.startsWith("http://")) {
+            return normaliseQueueUrl(physicalId);
+        }
+        return physicalId;
+    }
+
+    /**
+     * Extracts the resource name from a normalised ARN, for the services whose cleaners identify resources by name.
+     * The resource type is removed, so a table ARN gives the table name and a log group ARN gives the group name.
+     *
+     * @param normalised A normalised ID, see {@link #normalise(String)}
+     * @return The resource name, or the ID unchanged if it is not an ARN
+     */
+    static String nameOf(String normalised) {
+        if (!normalised.startsWith("arn:")) {
+            return normalised;
+        }
+        final String[] parts = normalised.split(":", NORMALISED_PARTS);
+        if (parts.length < NORMALISED_PARTS) {
+            return normalised;
+        }
+        final String resource = parts[NORMALISED_PARTS - 1];
+        final int typeEnd = resource.indexOf(':');
+        if (typeEnd >= 0) {
+            return resource.substring(typeEnd + 1);
+        }
+        return resource.substring(resource.lastIndexOf('/') + 1);
+    }
+
+    private static String normaliseQueueUrl(String url) {
+        final URI uri = URI.create(url);
+        final String host = Objects.toString(uri.getHost(), "");
+        final String[] path = split(Objects.toString(uri.getPath(), ""), '/');
+        if (path.length == 2) {
+            final String[] hostParts = split(host, '.');
+            if (hostParts.length > 2 && "sqs".equals(hostParts[0])) {
+                return String.join(":", "arn", "sqs", hostParts[1], path[0], path[1]);
+            }
+            if (host.startsWith("queue.amazonaws.com")) {
+                return String.join(":", "arn", "sqs", "us-east-1", path[0], path[1]);
+            }
+        }
+        return url;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import com.limemojito.aws.cleaner.resource.Throttle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
+import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
+import software.amazon.awssdk.services.cloudformation.model.ListStackResourcesRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.StackResourceSummary;
+import software.amazon.awssdk.services.cloudformation.model.StackSummary;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_COMPLETE;
+
+/**
+ * In memory index of the physical resource IDs owned by the live CloudFormation stacks in a region.
+ * The index is built on the first lookup of a run by listing the resources of every stack, replacing a
+ * DescribeStackResources call for every candidate resource with one paginated ListStackResources per stack.  As the
+ * CloudFormation cleaner runs before every other cleaner, stacks it deletes are not in the index.
+ * <p>
+ * IDs are compared in a normalised form so that the ARN and URL forms of the same resource match, for example an SQS
+ * queue URL and its queue ARN.
+ * <p>
+ * When cleaner.cloudformation.cache.dir is set, the resources of each stack are kept in a {@link StackResourceCache}
+ * per account and region, and only stacks that are new or have changed since the last run are listed again.
+ */
+@Component
+@Lazy
+@Slf4j
+public class StackOwnershipIndex {
+    private final CloudFormationClient cloudFormation;
+    private final StackResourceCache cache;
+    private volatile Set<String> owned;
+
+    /**
+     * Constructs a new StackOwnershipIndex.
+     *
+     * @param cloudFormation The AWS CloudFormation client
+     * @param cacheDir       Directory for the stack resource cache, blank to always list every stack
+     * @param roleArn        The role of the account being cleaned, if any
+     * @param region         The region being cleaned
+     */
+    @Autowired
+    public StackOwnershipIndex(CloudFormationClient cloudFormation,
+                               @Value("${cleaner.cloudformation.cache.dir:}") String cacheDir,
+                               @Value("${cleaner.role.arn:}") String roleArn,
+                               Region region) {
+        this(cloudFormation, isBlank(cacheDir) ? null : new StackResourceCache(cacheFile(cacheDir, roleArn, region)));
+    }
+
+    /**
+     * Constructs a new StackOwnershipIndex.
+     *
+     * @param cloudFormation The AWS CloudFormation client
+     * @param cache          The stack resource cache, or null to always list every stack
+     */
+    StackOwnershipIndex(CloudFormationClient cloudFormation, StackResourceCache cache) {
+        this.cloudFormation = cloudFormation;
+        this.cache = cache;
+    }
+
+    /**
+     * Determines if a resource is owned by a live CloudFormation stack.
+     *
+     * @param physicalId The physical ID, ARN or URL of the AWS resource
+     * @return true if a live stack owns the resource
+     */
+    public boolean isOwned(String physicalId) {
+        return index().contains(ResourceIds.normalise(physicalId));
+    }
+
+    /**
+     * Discards the index so that the next lookup sees the stacks as they are when the new run starts.
+     *
+     * @param event The run that is starting
+     */
+    @EventListener
+    public void onCleanStarted(CleanStartedEvent event) {
+        log.debug("Discarding stack ownership index for {}", event.region());
+        owned = null;
+    }
+
+    private Set<String> index() {
+        Set<String> current = owned;
+        if (current == null) {
+            synchronized (this) {
+                current = owned;
+                if (current == null) {
+                    current = build();
+                    owned = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Path cacheFile(String cacheDir, String roleArn, Region region) {
+        final String account = defaultIfBlank(roleArn, "default").replaceAll("[^A-Za-z0-9._-]", "_");
+        return Path.of(cacheDir, format("stacks-%s-%s.tsv", account, region.id()));
+    }
+
+    private Set<String> build() {
+        final long start = System.currentTimeMillis();
+        final List<StackSummary> stacks = cloudFormation.listStacksPaginator(ListStacksRequest.builder().build())
+                                                        .stackSummaries()
+                                                        .stream()
+                                                        .filter(summary -> summary.stackStatus() != DELETE_COMPLETE)
+                                                        .collect(toList());
+        final Map<String, StackResourceCache.Entry> cached = cache == null ? Map.of() : cache.load();
+        final Map<String, StackResourceCache.Entry> current = new HashMap<>();
+        final Set<String> index = new HashSet<>();
+        int listed = 0;
+        for (StackSummary stack : stacks) {
+            final String version = versionOf(stack);
+            StackResourceCache.Entry entry = cached.get(stack.stackId());
+            if (entry == null || !entry.version().equals(version)) {
+                entry = new StackResourceCache.Entry(version, listPhysicalIds(stack));
+                listed++;
+            }
+            if (!isInProgress(stack)) {
+                current.put(stack.stackId(), entry);
+            }
+            for (String physicalId : entry.physicalIds()) {
+                index.add(ResourceIds.normalise(physicalId));
+            }
+        }
+        if (cache != null) {
+            cache.save(current);
+        }
+        log.info("Indexed {} resources in {} stacks ({} listed) in {}ms",
+                 index.size(),
+                 stacks.size(),
+                 listed,
+                 System.currentTimeMillis() - start);
+        return Set.copyOf(index);
+    }
+
+    private static String versionOf(StackSummary stack) {
+        final Instant updated = stack.lastUpdatedTime() != null ? stack.lastUpdatedTime() : stack.creationTime();
+        return stack.stackStatusAsString() + "@" + updated;
+    }
+
+    private static boolean isInProgress(StackSummary stack) {
+        // resources of a stack that is changing are not final, so the stack is listed again on the next run.
+        return Objects.toString(stack.stackStatusAsString(), "").endsWith("_IN_PROGRESS");
+    }
+
+    private List<String> listPhysicalIds(StackSummary stack) {
+        final ListStackResourcesRequest request = ListStackResourcesRequest.builder()
+                                                                           .stackName(stack.stackId())
+                                                                           .build();
+        try {
+            return Throttle.performRequestWithThrottle(
+                    () -> cloudFormation.listStackResourcesPaginator(request)
+                                        .stackResourceSummaries()
+                                        .stream()
+                                        .map(StackResourceSummary::physicalResourceId)
+                                        .filter(Objects::nonNull)
+                                        .collect(toList()));
+        } catch (CloudFormationException e) {
+            if (e.getMessage().contains("does not exist")) {
+                log.debug("Stack {} removed while indexing", stack.stackName());
+                return List.of();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * On disk cache of the physical resource IDs owned by each CloudFormation stack, keyed by stack ID.
+ * Each entry records the version of the stack it was read from so that only new or changed stacks need to be listed
+ * again on the next run.
+ * <p>
+ * The cache is a tab separated text file that is replaced atomically when saved.  A file that is missing, from
+ * another format version or damaged in any way loads as empty, so the caller rebuilds it from CloudFormation.
+ */
+@Slf4j
+class StackResourceCache {
+    private static final String HEADER = "aws-cleaner-stack-cache\t1";
+    private static final String STACK = "stack";
+    private static final String END = "end";
+    private final Path file;
+
+    /**
+     * A cached stack.
+     *
+     * @param version     The stack's ID, status and last update time when its resources were listed
+     * @param physicalIds The physical resource IDs owned by the stack
+     */
+    record Entry(String version, List<String> physicalIds) {
+    }
+
+    /**
+     * Constructs a new StackResourceCache.
+     *
+     * @param file The cache file, created when first saved
+     */
+    StackResourceCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the cache.
+     *
+     * @return The cached stacks by stack ID, or an empty map if the cache is missing or can not be read
+     */
+    Map<String, Entry> load() {
+        if (!Files.isReadable(file)) {
+            return Map.of();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+            return read(reader);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable stack cache {}: {}", file, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Replaces the cache with the supplied stacks.  Failures are logged as the cache is only an optimisation.
+     *
+     * @param stacks The stacks to cache by stack ID
+     */
+    void save(Map<String, Entry> stacks) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            final Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, UTF_8)) {
+                    write(writer, stacks);
+                }
+                Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("Saved {} stacks to {}", stacks.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save stack cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Entry> read(BufferedReader reader) throws IOException {
+        if (!HEADER.equals(reader.readLine())) {
+            throw new IOException("unknown cache format");
+        }
+        final Map<String, Entry> stacks = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final String[] fields = line.split("\t");
+            if (fields.length == 2 && END.equals(fields[0])) {
+                if (Integer.parseInt(fields[1]) != stacks.size()) {
+                    throw new IOException("stack count does not match");
+                }
+                return stacks;
+            }
+            if (fields.length != 4 || !STACK.equals(fields[0])) {
+                throw new IOException(format("unexpected line %s", line));
+            }
+            final int count = Integer.parseInt(fields[3]);
+            final List<String> physicalIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String physicalId = reader.readLine();
+                if (physicalId == null) {
+                    throw new IOException(format("truncated stack %s", fields[1]));
+                }
+                physicalIds.add(physicalId);
+            }
+            stacks.put(fields[1], new Entry(fields[2], List.copyOf(physicalIds)));
+        }
+        throw new IOException("truncated cache");
+    }
+
+    private static void write(BufferedWriter writer, Map<String, Entry> stacks) throws IOException {
+        writer.write(HEADER);
+        writer.newLine();
+        for (Map.Entry<String, Entry> stack : stacks.entrySet()) {
+            final List<String> physicalIds = stack.getValue().physicalIds();
+            writer.write(String.join("\t", STACK, stack.getKey(), stack.getValue().version(),
+                                     Integer.toString(physicalIds.size())));
+            writer.newLine();
+            for (String physicalId : physicalIds) {
+                writer.write(physicalId);
+                writer.newLine();
+            }
+        }
+        writer.write(END + "\t" + stacks.size());
+        writer.newLine();
+    }
+}
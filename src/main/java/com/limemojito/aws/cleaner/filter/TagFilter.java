@@ -0,0 +1,220 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CandidateResource;
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import com.limemojito.aws.cleaner.resource.Throttle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.GetResourcesRequest;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.ResourceTagMapping;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.Tag;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter.stripCommaSeparated;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.lang3.StringUtils.substringAfter;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+import static org.apache.commons.lang3.StringUtils.substringBetween;
+
+/**
+ * Filter implementation that decides if a resource should be deleted from its tags.
+ * The tags of every resource in the region are loaded once per run with the Resource Groups Tagging API, so a check
+ * is a local lookup rather than a call to each service's tag API.
+ * <p>
+ * Tag rules are comma separated {@code key} or {@code key=value} expressions, where a rule without a value matches
+ * any value.  When cleaner.tag.include is set only resources with a matching tag are deleted, and resources with a
+ * tag matching cleaner.tag.exclude are always kept.  With no rules the filter deletes everything and makes no calls.
+ * <p>
+ * Cleaners that identify resources by name, rather than ARN or URL, and do not know the resource's ARN are matched on
+ * the name within the tagged ARN.
+ * A name tagged on more than one resource is ambiguous and the resource is kept.
+ */
+@Component
+@Lazy
+@Slf4j
+public class TagFilter implements DeletionFilter {
+    private static final Map<String, String> AMBIGUOUS = Collections.unmodifiableMap(new HashMap<>());
+    private static final Set<String> NAMED_SERVICES = Set.of("dynamodb", "logs", "s3", "elasticache",
+                                                             "elasticbeanstalk");
+    private final Supplier<ResourceGroupsTaggingApiClient> tagging;
+    private final List<TagRule> include;
+    private final List<TagRule> exclude;
+    private volatile TagIndex index;
+
+    private record TagRule(String key, String value) {
+        static TagRule parse(String expression) {
+            return expression.contains("=")
+                    ? new TagRule(substringBefore(expression, "=").trim(), substringAfter(expression, "=").trim())
+                    : new TagRule(expression, null);
+        }
+
+        boolean matches(Map<String, String> tags) {
+            return tags.containsKey(key) && (value == null || value.equals(tags.get(key)));
+        }
+
+        @Override
+        public String toString() {
+            return value == null ? key : key + "=" + value;
+        }
+    }
+
+    private record TagIndex(Map<String, Map<String, String>> byArn, Map<String, Map<String, String>> byName) {
+    }
+
+    /**
+     * Constructs a new TagFilter.
+     *
+     * @param tagging    Provides the AWS Resource Groups Tagging API client, only requested if there are rules
+     * @param includeCsv Comma separated tag rules a resource must match one of to be deleted, empty for any resource
+     * @param excludeCsv Comma separated tag rules that keep a resource
+     */
+    @Autowired
+    public TagFilter(ObjectProvider<ResourceGroupsTaggingApiClient> tagging,
+                     @Value("${cleaner.tag.include:}") String includeCsv,
+                     @Value("${cleaner.tag.exclude:}") String excludeCsv) {
+        this(tagging::getObject, includeCsv, excludeCsv);
+    }
+
+    TagFilter(Supplier<ResourceGroupsTaggingApiClient> tagging, String includeCsv, String excludeCsv) {
+        this.tagging = tagging;
+        this.include = stripCommaSeparated(includeCsv).stream().map(TagRule::parse).toList();
+        this.exclude = stripCommaSeparated(excludeCsv).stream().map(TagRule::parse).toList();
+        if (isEnabled()) {
+            log.info("Deleting resources tagged {} except those tagged {}", include, exclude);
+        }
+    }
+
+    /**
+     * Determines if a resource should be deleted from the tags it carries.  Tags returned by the cleaner's listing
+     * are used when present, otherwise the tags are looked up by ARN or physical ID.
+     *
+     * @param candidate The AWS resource to evaluate
+     * @return true if the resource passes the include rules and matches none of the exclude rules
+     */
+    @Override
+    public boolean shouldDelete(CandidateResource candidate) {
+        if (!isEnabled()) {
+            return true;
+        }
+        final String physicalId = candidate.id();
+        final Map<String, String> tags = candidate.tags() != null
+                ? candidate.tags()
+                : tagsOf(candidate.arn() != null ? candidate.arn() : physicalId);
+        if (tags == AMBIGUOUS) {
+            log.info("{} matches several tagged resources, keeping it", physicalId);
+            return false;
+        }
+        if (!include.isEmpty() && include.stream().noneMatch(rule -> rule.matches(tags))) {
+            log.debug("{} has no tag in cleaner.tag.include", physicalId);
+            return false;
+        }
+        for (TagRule rule : exclude) {
+            if (rule.matches(tags)) {
+                log.info("{} is tagged {} in cleaner.tag.exclude", physicalId, rule);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Tags are loaded for the whole region with a few paginated calls.
+     */
+    @Override
+    public int getCost() {
+        return isEnabled() ? BULK_COST : LOCAL_COST;
+    }
+
+    /**
+     * Discards the loaded tags so that the next check sees the tags as they are when the new run starts.
+     *
+     * @param event The run that is starting
+     */
+    @EventListener
+    public void onCleanStarted(CleanStartedEvent event) {
+        index = null;
+    }
+
+    private boolean isEnabled() {
+        return !include.isEmpty() || !exclude.isEmpty();
+    }
+
+    private Map<String, String> tagsOf(String physicalId) {
+        final TagIndex current = index();
+        final String normalised = ResourceIds.normalise(physicalId);
+        final Map<String, String> tags = current.byArn().get(normalised);
+        if (tags != null) {
+            return tags;
+        }
+        return current.byName().getOrDefault(ResourceIds.nameOf(normalised), Map.of());
+    }
+
+    private TagIndex index() {
+        TagIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private TagIndex load() {
+        final long start = System.currentTimeMillis();
+        final List<ResourceTagMapping> mappings = Throttle.performRequestWithThrottle(
+                () -> tagging.get()
+                             .getResourcesPaginator(GetResourcesRequest.builder().build())
+                             .resourceTagMappingList()
+                             .stream()
+                             .toList());
+        final Map<String, Map<String, String>> byArn = new HashMap<>();
+        final Map<String, Map<String, String>> byName = new HashMap<>();
+        for (ResourceTagMapping mapping : mappings) {
+            final String arn = ResourceIds.normalise(mapping.resourceARN());
+            final Map<String, String> tags = mapping.tags()
+                                                    .stream()
+                                                    .collect(toMap(Tag::key, Tag::value, (first, second) -> first));
+            byArn.put(arn, tags);
+            if (NAMED_SERVICES.contains(substringBetween(arn, ":"))) {
+                // a name shared by resources of different services can not say which resource's tags apply.
+                byName.merge(ResourceIds.nameOf(arn), tags, (first, second) -> AMBIGUOUS);
+            }
+        }
+        log.info("Loaded tags of {} resources in {}ms", byArn.size(), System.currentTimeMillis() - start);
+        return new TagIndex(Map.copyOf(byArn), byName);
+    }
+}
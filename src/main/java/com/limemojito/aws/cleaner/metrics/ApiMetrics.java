@@ -0,0 +1,298 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.limemojito.aws.cleaner.metrics.Exports.quote;
+
+/**
+ * Registry of the AWS API calls made by the run, shared by every account and region.
+ * <p>
+ * The {@link ApiMetricsInterceptor} installed in every AWS client records each call's latency, retries and
+ * throttling by region, service, operation and cleaner, and each {@link CleanerReport} adds the time spent in
+ * {@link com.limemojito.aws.cleaner.resource.Throttle} backoff.  Counters are kept for the life of the process, so
+ * a daemon's export grows from run to run as Prometheus expects.  {@link #export()} logs the busiest APIs and, when
+ * cleaner.metrics.file is set, writes every metric in Prometheus text or JSON format.
+ * <p>
+ * Calls are attributed to the cleaner whose {@link CleanerReport} is tracked on the calling thread.  Calls made from
+ * the AWS SDK's own threads, such as the later stages of an asynchronous clean, are attributed to cleaner "-".
+ */
+@Slf4j
+public class ApiMetrics {
+    private static final String[] BUCKETS = {"0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10",
+                                             "30"};
+    private static final double[] BUCKET_NANOS = Arrays.stream(BUCKETS)
+                                                       .mapToDouble(b -> Double.parseDouble(b) * 1e9)
+                                                       .toArray();
+    private static final int TOP_APIS = 5;
+
+    private final Map<ApiKey, ApiCalls> apis = new ConcurrentHashMap<>();
+    private final Map<CleanerKey, LongAdder> backoffNanos = new ConcurrentHashMap<>();
+    private final Path file;
+    private final Format format;
+
+    /**
+     * Format of the exported metrics.
+     */
+    public enum Format {
+        /**
+         * Prometheus text exposition format.
+         */
+        PROMETHEUS,
+        /**
+         * A JSON document.
+         */
+        JSON
+    }
+
+    /**
+     * Constructs a new ApiMetrics that is only logged on export.
+     */
+    public ApiMetrics() {
+        this(null, Format.PROMETHEUS);
+    }
+
+    /**
+     * Constructs a new ApiMetrics.
+     *
+     * @param file   The file to write on export, or null to only log
+     * @param format The format to write the file in
+     */
+    public ApiMetrics(Path file, Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    /**
+     * Logs a summary of the busiest APIs, and writes every metric to cleaner.metrics.file if it is set.
+     * A file that can not be written is logged rather than failing the run.
+     */
+    public void export() {
+        final Comparator<Map.Entry<ApiKey, ApiCalls>> byCalls = Comparator.comparingLong(e -> e.getValue().calls.sum());
+        sortedApis().stream().sorted(byCalls.reversed()).limit(TOP_APIS).forEach(ApiMetrics::logApi);
+        if (file != null) {
+            try {
+                Exports.writeAtomically(file, toString());
+                log.debug("Metrics written to {}", file);
+            } catch (IOException e) {
+                log.warn("Could not write metrics to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes every metric in the configured format.
+     *
+     * @param out Where to write the metrics
+     * @throws IOException if the metrics could not be written
+     */
+    public void write(Writer out) throws IOException {
+        if (format == Format.JSON) {
+            writeJson(out);
+        } else {
+            writePrometheus(out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringWriter out = new StringWriter();
+        try {
+            write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    void recordBackoff(String region, String cleaner, Duration backoff) {
+        backoffNanos.computeIfAbsent(new CleanerKey(region, cleaner), k -> new LongAdder()).add(backoff.toNanos());
+    }
+
+    void record(ApiKey key, long nanos, int attempts, int throttles, boolean failed) {
+        final ApiCalls calls = apis.computeIfAbsent(key, k -> new ApiCalls());
+        calls.calls.increment();
+        calls.nanos.add(nanos);
+        calls.retries.add(Math.max(0, attempts - 1));
+        calls.throttles.add(throttles);
+        if (failed) {
+            calls.failures.increment();
+        }
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        calls.buckets[bucket].increment();
+    }
+
+    private static void logApi(Map.Entry<ApiKey, ApiCalls> entry) {
+        final ApiKey key = entry.getKey();
+        final ApiCalls calls = entry.getValue();
+        log.info("{} {}.{} by {}: {} calls, {} retries, {} throttled, {}ms",
+                 key.region(),
+                 key.service(),
+                 key.operation(),
+                 key.cleaner(),
+                 calls.calls.sum(),
+                 calls.retries.sum(),
+                 calls.throttles.sum(),
+                 Duration.ofNanos(calls.nanos.sum()).toMillis());
+    }
+
+    private void writePrometheus(Writer out) throws IOException {
+        final List<Map.Entry<ApiKey, ApiCalls>> sorted = sortedApis();
+        writeCounter(out, sorted, "aws_cleaner_api_calls_total", "AWS API calls made.", c -> c.calls);
+        writeCounter(out, sorted, "aws_cleaner_api_failures_total", "AWS API calls that failed.", c -> c.failures);
+        writeCounter(out, sorted, "aws_cleaner_api_retries_total", "AWS API attempts retried by the SDK.",
+                     c -> c.retries);
+        writeCounter(out, sorted, "aws_cleaner_api_throttles_total", "AWS API attempts that were throttled.",
+                     c -> c.throttles);
+        final String histogram = "aws_cleaner_api_call_duration_seconds";
+        out.write("# HELP " + histogram + " AWS API call latency including retries.\n");
+        out.write("# TYPE " + histogram + " histogram\n");
+        for (Map.Entry<ApiKey, ApiCalls> entry : sorted) {
+            final String labels = entry.getKey().labels();
+            long cumulative = 0;
+            for (int i = 0; i <= BUCKETS.length; i++) {
+                cumulative += entry.getValue().buckets[i].sum();
+                final String le = i < BUCKETS.length ? BUCKETS[i] : "+Inf";
+                out.write(histogram + "_bucket{" + labels + ",le=\"" + le + "\"} " + cumulative + "\n");
+            }
+            out.write(histogram + "_sum{" + labels + "} " + seconds(entry.getValue().nanos.sum()) + "\n");
+            out.write(histogram + "_count{" + labels + "} " + entry.getValue().calls.sum() + "\n");
+        }
+        final String backoff = "aws_cleaner_throttle_backoff_seconds_total";
+        out.write("# HELP " + backoff + " Time spent backing off after throttling.\n");
+        out.write("# TYPE " + backoff + " counter\n");
+        for (Map.Entry<CleanerKey, LongAdder> entry : sortedBackoff()) {
+            out.write(backoff + "{" + entry.getKey().labels() + "} " + seconds(entry.getValue().sum()) + "\n");
+        }
+    }
+
+    private static void writeCounter(Writer out,
+                                     List<Map.Entry<ApiKey, ApiCalls>> sorted,
+                                     String name,
+                                     String help,
+                                     Function<ApiCalls, LongAdder> counter) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " counter\n");
+        for (Map.Entry<ApiKey, ApiCalls> entry : sorted) {
+            out.write(name + "{" + entry.getKey().labels() + "} " + counter.apply(entry.getValue()).sum() + "\n");
+        }
+    }
+
+    private void writeJson(Writer out) throws IOException {
+        out.write("{\"apis\":[");
+        String separator = "";
+        for (Map.Entry<ApiKey, ApiCalls> entry : sortedApis()) {
+            final ApiKey key = entry.getKey();
+            final ApiCalls calls = entry.getValue();
+            out.write(separator);
+            out.write("{\"region\":" + quote(key.region())
+                      + ",\"service\":" + quote(key.service())
+                      + ",\"operation\":" + quote(key.operation())
+                      + ",\"cleaner\":" + quote(key.cleaner())
+                      + ",\"calls\":" + calls.calls.sum()
+                      + ",\"failures\":" + calls.failures.sum()
+                      + ",\"retries\":" + calls.retries.sum()
+                      + ",\"throttles\":" + calls.throttles.sum()
+                      + ",\"seconds\":" + seconds(calls.nanos.sum())
+                      + ",\"buckets\":{");
+            for (int i = 0; i <= BUCKETS.length; i++) {
+                out.write((i == 0 ? "" : ",") + quote(i < BUCKETS.length ? BUCKETS[i] : "+Inf") + ":"
+                          + calls.buckets[i].sum());
+            }
+            out.write("}}");
+            separator = ",";
+        }
+        out.write("],\"backoff\":[");
+        separator = "";
+        for (Map.Entry<CleanerKey, LongAdder> entry : sortedBackoff()) {
+            out.write(separator);
+            out.write("{\"region\":" + quote(entry.getKey().region())
+                      + ",\"cleaner\":" + quote(entry.getKey().cleaner())
+                      + ",\"seconds\":" + seconds(entry.getValue().sum()) + "}");
+            separator = ",";
+        }
+        out.write("]}\n");
+    }
+
+    private List<Map.Entry<ApiKey, ApiCalls>> sortedApis() {
+        return apis.entrySet().stream().sorted(Map.Entry.comparingByKey(ApiKey.ORDER)).toList();
+    }
+
+    private List<Map.Entry<CleanerKey, LongAdder>> sortedBackoff() {
+        return backoffNanos.entrySet().stream().sorted(Map.Entry.comparingByKey(CleanerKey.ORDER)).toList();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+
+    record ApiKey(String region, String service, String operation, String cleaner) {
+        static final Comparator<ApiKey> ORDER = Comparator.comparing(ApiKey::region)
+                                                          .thenComparing(ApiKey::service)
+                                                          .thenComparing(ApiKey::operation)
+                                                          .thenComparing(ApiKey::cleaner);
+
+        String labels() {
+            return "region=" + quote(region) + ",service=" + quote(service) + ",operation=" + quote(operation)
+                   + ",cleaner=" + quote(cleaner);
+        }
+    }
+
+    private record CleanerKey(String region, String cleaner) {
+        static final Comparator<CleanerKey> ORDER = Comparator.comparing(CleanerKey::region)
+                                                              .thenComparing(CleanerKey::cleaner);
+
+        String labels() {
+            return "region=" + quote(region) + ",cleaner=" + quote(cleaner);
+        }
+    }
+
+    private static final class ApiCalls {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+        private ApiCalls() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Records every call made by the region's AWS clients in the run's {@link ApiMetrics}.
+ * It is the first interceptor of each client so that calls rejected by an open circuit are also counted, and call
+ * latency includes the rate limiter's waits and the SDK's retries.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ApiMetricsInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> STARTED = new ExecutionAttribute<>("CleanerCallStarted");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("CleanerCallAttempts");
+    private static final ExecutionAttribute<Integer> THROTTLES = new ExecutionAttribute<>("CleanerCallThrottles");
+    private static final ExecutionAttribute<Boolean> LAST_THROTTLED = new ExecutionAttribute<>("CleanerCallThrottled");
+
+    private final ApiMetrics metrics;
+    private final String region;
+
+    /**
+     * Constructs a new ApiMetricsInterceptor.
+     *
+     * @param metrics The run's metrics registry
+     * @param region  The region of the clients
+     */
+    public ApiMetricsInterceptor(ApiMetrics metrics, Region region) {
+        this.metrics = metrics;
+        this.region = region.id();
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(STARTED, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, 0);
+        executionAttributes.putAttribute(THROTTLES, 0);
+        executionAttributes.putAttribute(LAST_THROTTLED, false);
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(ATTEMPTS, executionAttributes.getAttribute(ATTEMPTS) + 1);
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        final int status = context.httpResponse().statusCode();
+        final boolean throttled = status == HttpStatusCode.THROTTLING || status == HttpStatusCode.SERVICE_UNAVAILABLE;
+        if (throttled) {
+            executionAttributes.putAttribute(THROTTLES, executionAttributes.getAttribute(THROTTLES) + 1);
+        }
+        executionAttributes.putAttribute(LAST_THROTTLED, throttled);
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, false);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        final boolean counted = executionAttributes.getAttribute(STARTED) == null
+                                || executionAttributes.getAttribute(LAST_THROTTLED);
+        if (!counted && context.exception() instanceof SdkServiceException service && service.isThrottlingException()) {
+            executionAttributes.putAttribute(THROTTLES, executionAttributes.getAttribute(THROTTLES) + 1);
+        }
+        record(executionAttributes, true);
+    }
+
+    private void record(ExecutionAttributes executionAttributes, boolean failed) {
+        final Long started = executionAttributes.getAttribute(STARTED);
+        if (started == null) {
+            // failed before this interceptor saw the call.
+            return;
+        }
+        final ApiMetrics.ApiKey key =
+                new ApiMetrics.ApiKey(region,
+                                      executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME),
+                                      executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME),
+                                      CleanerReport.current().cleaner());
+        metrics.record(key,
+                       System.nanoTime() - started,
+                       executionAttributes.getAttribute(ATTEMPTS),
+                       executionAttributes.getAttribute(THROTTLES),
+                       failed);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a sleep between attempts of a throttled AWS call.
+ */
+@Name("com.limemojito.aws.cleaner.Backoff")
+@Label("Throttling Backoff")
+@Description("A cleaner sleeping before retrying a throttled AWS call")
+@Category({"AWS Cleaner"})
+@StackTrace(false)
+public final class BackoffEvent extends Event {
+    @Label("Cleaner")
+    private String cleaner;
+    @Label("Resource")
+    private String resourceId;
+    @Label("Attempt")
+    private int attempt;
+
+    /**
+     * Commits the event if it is enabled in a recording.
+     *
+     * @param resourceId The resource being worked on when the call was throttled, or null if unknown
+     * @param attempt    The attempt that was throttled
+     */
+    public void commit(String resourceId, int attempt) {
+        if (shouldCommit()) {
+            this.cleaner = CleanerReport.current().cleaner();
+            this.resourceId = resourceId;
+            this.attempt = attempt;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for one cleaner cleaning one region, from start to completion or failure.
+ */
+@Name("com.limemojito.aws.cleaner.Clean")
+@Label("Clean")
+@Description("A cleaner cleaning a region")
+@Category({"AWS Cleaner"})
+@StackTrace(false)
+public final class CleanEvent extends Event {
+    @Label("Region")
+    private String region;
+    @Label("Cleaner")
+    private String cleaner;
+    @Label("Failure")
+    private String failure;
+
+    /**
+     * Commits the event if it is enabled in a recording.
+     *
+     * @param report The cleaner's report
+     * @param cause  The failure of the clean, or null if it completed
+     */
+    public void commit(CleanerReport report, Throwable cause) {
+        if (shouldCommit()) {
+            region = report.region();
+            cleaner = report.cleaner();
+            failure = cause == null ? null : String.valueOf(cause.getMessage());
+            commit();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.limemojito.aws.cleaner.metrics.Exports.quote;
+
+/**
+ * Outcome of one cleaner in one region during a run, written to the {@link RunReport}.
+ * <p>
+ * Cleaners count the resources they list, keep and delete, with deleted meaning would be deleted in a dry run.  Time
+ * spent in {@link com.limemojito.aws.cleaner.resource.WaitFor} and
+ * {@link com.limemojito.aws.cleaner.resource.Throttle} is counted against the report being tracked on the waiting
+ * thread, see {@link #track(Supplier)}, and the AWS calls made on that thread are labelled with the cleaner in
+ * {@link ApiMetrics}.
+ */
+public final class CleanerReport {
+    private static final CleanerReport UNTRACKED = new CleanerReport("-", "-", null);
+    private static final InheritableThreadLocal<Scope> SCOPE = new InheritableThreadLocal<>() {
+        @Override
+        protected Scope childValue(Scope parent) {
+            // only hand the report to threads started by the cleaner, not to pools that happen to start there.
+            return parent != null && parent.isCurrent() ? parent : null;
+        }
+    };
+
+    private final String region;
+    private final String cleaner;
+    private final ApiMetrics metrics;
+    private final LongAdder listed = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+    private final Map<String, LongAdder> kept = new ConcurrentHashMap<>();
+    private volatile Span span = Span.none();
+    private volatile Duration elapsed;
+    private volatile String failure;
+
+    /**
+     * Constructs a new CleanerReport.
+     *
+     * @param region  The region being cleaned
+     * @param cleaner The name of the cleaner
+     * @param metrics The run's API metrics, which also record throttling backoff, or null
+     */
+    public CleanerReport(String region, String cleaner, ApiMetrics metrics) {
+        this.region = region;
+        this.cleaner = cleaner;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the report tracked on the current thread.
+     *
+     * @return The tracked report, or a report that is never written if no cleaner is tracked on this thread
+     */
+    public static CleanerReport current() {
+        final Scope scope = SCOPE.get();
+        return scope != null && scope.isCurrent() ? scope.report() : UNTRACKED;
+    }
+
+    /**
+     * Gets a report that is never written, for cleaners run outside of {@link com.limemojito.aws.cleaner.Main}.
+     *
+     * @return The untracked report
+     */
+    public static CleanerReport untracked() {
+        return UNTRACKED;
+    }
+
+    /**
+     * Performs work with this report tracked on the current thread and the virtual threads the work starts.
+     *
+     * @param work The work to perform
+     * @param <T>  The type of result
+     * @return The result of the work
+     */
+    public <T> T track(Supplier<T> work) {
+        final Scope previous = SCOPE.get();
+        SCOPE.set(new Scope(this, Thread.currentThread()));
+        try {
+            return work.get();
+        } finally {
+            SCOPE.set(previous);
+        }
+    }
+
+    /**
+     * Counts resources listed as candidates.
+     *
+     * @param count The number of resources listed
+     */
+    public void listed(int count) {
+        listed.add(count);
+    }
+
+    /**
+     * Counts a resource kept by a filter or rule.
+     *
+     * @param rule The filter or rule that kept the resource
+     */
+    public void kept(String rule) {
+        kept.computeIfAbsent(rule, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a resource deleted, or that would be deleted in a dry run.
+     */
+    public void deleted() {
+        deleted.increment();
+    }
+
+    /**
+     * Counts a resource that could not be deleted.
+     */
+    public void failed() {
+        failed.increment();
+    }
+
+    /**
+     * Adds time spent waiting for a resource to reach a state.
+     *
+     * @param time The time waited
+     */
+    public void waited(Duration time) {
+        waitNanos.add(time.toNanos());
+    }
+
+    /**
+     * Adds time spent backing off after throttling.
+     *
+     * @param time The time waited
+     */
+    public void backedOff(Duration time) {
+        backoffNanos.add(time.toNanos());
+        if (metrics != null) {
+            metrics.recordBackoff(region, cleaner, time);
+        }
+    }
+
+    /**
+     * Records the start of the cleaner's work.
+     *
+     * @param span The span of the cleaner's work, which resources and AWS calls on tracked threads are children of
+     */
+    public void started(Span span) {
+        this.span = span;
+    }
+
+    /**
+     * Records the end of the cleaner's work.
+     *
+     * @param time  Wall clock time the cleaner took
+     * @param cause The failure that stopped the cleaner, or null if it completed
+     */
+    public void finished(Duration time, Throwable cause) {
+        final Throwable unwrapped = cause instanceof CompletionException && cause.getCause() != null
+                                    ? cause.getCause()
+                                    : cause;
+        this.failure = unwrapped == null ? null : String.valueOf(unwrapped.getMessage());
+        this.elapsed = time;
+    }
+
+    /**
+     * Gets the region being cleaned.
+     *
+     * @return The region
+     */
+    public String region() {
+        return region;
+    }
+
+    /**
+     * Gets the name of the cleaner.
+     *
+     * @return The cleaner name
+     */
+    public String cleaner() {
+        return cleaner;
+    }
+
+    /**
+     * Gets the span of the cleaner's work.
+     *
+     * @return The span, or {@link Span#none()} before the cleaner starts or when tracing is disabled
+     */
+    public Span span() {
+        return span;
+    }
+
+    void writeJson(StringBuilder out) {
+        final Duration time = elapsed;
+        out.append("{\"region\":").append(quote(region))
+           .append(",\"cleaner\":").append(quote(cleaner))
+           .append(",\"status\":").append(quote(time == null ? "skipped"
+                                                                     : failure == null ? "completed" : "failed"))
+           .append(",\"elapsedMillis\":").append(time == null ? 0 : time.toMillis())
+           .append(",\"listed\":").append(listed.sum())
+           .append(",\"kept\":{");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> rule : new TreeMap<>(kept).entrySet()) {
+            out.append(separator).append(quote(rule.getKey())).append(':').append(rule.getValue().sum());
+            separator = ",";
+        }
+        out.append("},\"deleted\":").append(deleted.sum())
+           .append(",\"failed\":").append(failed.sum())
+           .append(",\"waitMillis\":").append(Duration.ofNanos(waitNanos.sum()).toMillis())
+           .append(",\"backoffMillis\":").append(Duration.ofNanos(backoffNanos.sum()).toMillis())
+           .append(",\"failure\":").append(failure == null ? "null" : quote(failure))
+           .append('}');
+    }
+
+    @Override
+    public String toString() {
+        final long keptCount = kept.values().stream().mapToLong(LongAdder::sum).sum();
+        return String.format("%s %s: %d listed, %d kept, %d deleted, %d failed in %dms",
+                             region,
+                             cleaner,
+                             listed.sum(),
+                             keptCount,
+                             deleted.sum(),
+                             failed.sum(),
+                             elapsed == null ? 0 : elapsed.toMillis());
+    }
+
+    private record Scope(CleanerReport report, Thread owner) {
+        /**
+         * Checks the report applies to the current thread, which is either the thread tracking the cleaner or a
+         * virtual thread started for it.
+         */
+        boolean isCurrent() {
+            final Thread current = Thread.currentThread();
+            return current == owner || current.isVirtual();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for the deletion of one resource, including any throttling retries.
+ */
+@Name("com.limemojito.aws.cleaner.Delete")
+@Label("Delete")
+@Description("A cleaner deleting a resource")
+@Category({"AWS Cleaner"})
+@StackTrace(false)
+public final class DeleteEvent extends Event {
+    @Label("Cleaner")
+    private String cleaner;
+    @Label("Resource")
+    private String resourceId;
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Commits the event if it is enabled in a recording.
+     *
+     * @param report     The report of the cleaner deleting the resource
+     * @param resourceId The resource deleted
+     * @param failed     true if the deletion failed
+     */
+    public void commit(CleanerReport report, String resourceId, boolean failed) {
+        if (shouldCommit()) {
+            this.cleaner = report.cleaner();
+            this.resourceId = resourceId;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for one deletion filter deciding whether a resource may be deleted.
+ */
+@Name("com.limemojito.aws.cleaner.Filter")
+@Label("Deletion Filter")
+@Description("A deletion filter deciding whether to keep a resource")
+@Category({"AWS Cleaner"})
+@StackTrace(false)
+public final class FilterEvent extends Event {
+    @Label("Cleaner")
+    private String cleaner;
+    @Label("Filter")
+    private String filter;
+    @Label("Resource")
+    private String resourceId;
+    @Label("Kept")
+    private boolean kept;
+
+    /**
+     * Commits the event if it is enabled in a recording.
+     *
+     * @param filter     The name of the filter
+     * @param resourceId The resource decided on
+     * @param kept       true if the filter kept the resource
+     */
+    public void commit(String filter, String resourceId, boolean kept) {
+        if (shouldCommit()) {
+            this.cleaner = CleanerReport.current().cleaner();
+            this.filter = filter;
+            this.resourceId = resourceId;
+            this.kept = kept;
+            commit();
+        }
+    }
+}
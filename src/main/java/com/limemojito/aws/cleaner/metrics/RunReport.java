@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import com.limemojito.aws.cleaner.CleanResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.limemojito.aws.cleaner.metrics.Exports.quote;
+
+/**
+ * Machine readable report of a run, covering dry runs as well as commits.
+ * For every account and region cleaned it lists each cleaner's {@link CleanerReport}: wall time, resources listed,
+ * resources kept by each filter or rule, resources deleted and failed, and time spent waiting and backing off.  Each
+ * cleaner's outcome is logged after the run, and when cleaner.report.file is set the report is written to that file as
+ * JSON, replacing the report of the previous run.
+ */
+@Slf4j
+public class RunReport {
+    private final Path file;
+
+    /**
+     * Constructs a new RunReport.
+     *
+     * @param file The file to write after each run, or null to only log
+     */
+    public RunReport(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Logs and writes the report of a run.  A file that can not be written is logged rather than failing the run.
+     *
+     * @param started When the run started
+     * @param commit  true if the run deleted resources, false for a dry run
+     * @param results The result of each account and region cleaned
+     */
+    public void write(Instant started, boolean commit, List<CleanResult> results) {
+        results.forEach(result -> result.cleaners().forEach(cleaner -> log.info("{}", cleaner)));
+        if (file != null) {
+            try {
+                Exports.writeAtomically(file, toJson(started, Instant.now(), commit, results));
+                log.debug("Run report written to {}", file);
+            } catch (IOException e) {
+                log.warn("Could not write run report to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    static String toJson(Instant started, Instant finished, boolean commit, List<CleanResult> results) {
+        final StringBuilder out = new StringBuilder(1024);
+        out.append("{\"started\":").append(quote(started.toString()))
+           .append(",\"elapsedMillis\":").append(Duration.between(started, finished).toMillis())
+           .append(",\"commit\":").append(commit)
+           .append(",\"scopes\":[");
+        for (int i = 0; i < results.size(); i++) {
+            final CleanResult result = results.get(i);
+            out.append(i == 0 ? "" : ",")
+               .append("{\"scope\":").append(quote(result.scope()))
+               .append(",\"elapsedMillis\":").append(result.elapsed().toMillis())
+               .append(",\"failure\":")
+               .append(result.isSuccess() ? "null" : quote(String.valueOf(result.failure().getMessage())))
+               .append(",\"cleaners\":[");
+            for (int j = 0; j < result.cleaners().size(); j++) {
+                out.append(j == 0 ? "" : ",");
+                result.cleaners().get(j).writeJson(out);
+            }
+            out.append("]}");
+        }
+        return out.append("]}\n").toString();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static com.limemojito.aws.cleaner.metrics.Exports.quote;
+
+/**
+ * A timed operation in a run's trace, written by the {@link Tracer} as an OpenTelemetry span.
+ * Spans nest as run, cleaner, resource and AWS call, with waits and throttling backoff as children of the operation
+ * that waited.
+ * <p>
+ * When tracing is disabled every span is {@link #none()}, which records nothing, so callers do not need to check.
+ */
+public final class Span {
+    private static final Span NONE = new Span(null, null, null, "none", Kind.INTERNAL);
+    private static final InheritableThreadLocal<Scope> SCOPE = new InheritableThreadLocal<>() {
+        @Override
+        protected Scope childValue(Scope parent) {
+            return parent != null && parent.isCurrent() ? parent : null;
+        }
+    };
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String name;
+    private final Kind kind;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long endNanos;
+    private String error;
+
+    /**
+     * The kind of operation a span represents, numbered as in OTLP.
+     */
+    public enum Kind {
+        /**
+         * Work inside the cleaner.
+         */
+        INTERNAL(1),
+        /**
+         * A call to an AWS API.
+         */
+        CLIENT(3);
+
+        private final int code;
+
+        Kind(int code) {
+            this.code = code;
+        }
+    }
+
+    Span(Tracer tracer, String traceId, String parentId, String name, Kind kind) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = tracer == null ? null : randomHex(8);
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = epochNanos();
+    }
+
+    /**
+     * Gets the span that records nothing.
+     *
+     * @return The disabled span
+     */
+    public static Span none() {
+        return NONE;
+    }
+
+    /**
+     * Gets the span that work on the current thread belongs to.  This is the span made current with
+     * {@link #within(Supplier)}, otherwise the span of the cleaner tracked on the thread.
+     *
+     * @return The current span, or {@link #none()}
+     */
+    public static Span current() {
+        final Scope scope = SCOPE.get();
+        return scope != null && scope.isCurrent() ? scope.span() : CleanerReport.current().span();
+    }
+
+    /**
+     * Starts a span that is a child of this span.
+     *
+     * @param name The name of the operation
+     * @return The started span
+     */
+    public Span child(String name) {
+        return child(name, Kind.INTERNAL);
+    }
+
+    /**
+     * Starts a span of the given kind that is a child of this span.
+     *
+     * @param name The name of the operation
+     * @param kind The kind of operation
+     * @return The started span
+     */
+    public Span child(String name, Kind kind) {
+        return tracer == null ? NONE : new Span(tracer, traceId, spanId, name, kind);
+    }
+
+    /**
+     * Adds an attribute describing the operation.
+     *
+     * @param key   The OpenTelemetry attribute name
+     * @param value A string, number or boolean value
+     * @return This span
+     */
+    public Span attribute(String key, Object value) {
+        if (tracer != null && value != null) {
+            synchronized (this) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether this span is recorded.
+     *
+     * @return false for {@link #none()}
+     */
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    /**
+     * Performs work with this span current on the thread and the virtual threads the work starts.
+     *
+     * @param work The work to perform
+     * @param <T>  The type of result
+     * @return The result of the work
+     */
+    public <T> T within(Supplier<T> work) {
+        if (tracer == null) {
+            return work.get();
+        }
+        final Scope previous = SCOPE.get();
+        SCOPE.set(new Scope(this, Thread.currentThread()));
+        try {
+            return work.get();
+        } finally {
+            SCOPE.set(previous);
+        }
+    }
+
+    /**
+     * Ends the span successfully.
+     */
+    public void end() {
+        end(null);
+    }
+
+    /**
+     * Ends the span, recording it with the tracer.  Only the first end is recorded.
+     *
+     * @param cause The failure of the operation, or null if it succeeded
+     */
+    public void end(Throwable cause) {
+        if (tracer == null) {
+            return;
+        }
+        synchronized (this) {
+            if (endNanos != 0) {
+                return;
+            }
+            endNanos = epochNanos();
+            if (cause != null) {
+                final Throwable unwrapped = cause instanceof CompletionException && cause.getCause() != null
+                                            ? cause.getCause()
+                                            : cause;
+                error = String.valueOf(unwrapped.getMessage());
+            }
+        }
+        tracer.ended(this);
+    }
+
+    synchronized void writeJson(StringBuilder out) {
+        out.append("{\"traceId\":").append(quote(traceId))
+           .append(",\"spanId\":").append(quote(spanId));
+        if (parentId != null) {
+            out.append(",\"parentSpanId\":").append(quote(parentId));
+        }
+        out.append(",\"name\":").append(quote(name))
+           .append(",\"kind\":").append(kind.code)
+           .append(",\"startTimeUnixNano\":\"").append(startNanos)
+           .append("\",\"endTimeUnixNano\":\"").append(endNanos)
+           .append("\",\"attributes\":[");
+        String separator = "";
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            out.append(separator).append("{\"key\":").append(quote(attribute.getKey())).append(",\"value\":");
+            writeValue(out, attribute.getValue());
+            out.append('}');
+            separator = ",";
+        }
+        out.append("],\"status\":");
+        if (error == null) {
+            out.append("{}");
+        } else {
+            out.append("{\"code\":2,\"message\":").append(quote(error)).append('}');
+        }
+        out.append('}');
+    }
+
+    static String randomHex(int bytes) {
+        final StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            hex.append(String.format("%02x", ThreadLocalRandom.current().nextInt(256)));
+        }
+        return hex.toString();
+    }
+
+    private static void writeValue(StringBuilder out, Object value) {
+        if (value instanceof Boolean bool) {
+            out.append("{\"boolValue\":").append(bool).append('}');
+        } else if (value instanceof Integer || value instanceof Long) {
+            // OTLP JSON carries 64 bit integers as strings.
+            out.append("{\"intValue\":\"").append(value).append("\"}");
+        } else if (value instanceof Number number) {
+            out.append("{\"doubleValue\":").append(number.doubleValue()).append('}');
+        } else {
+            out.append("{\"stringValue\":").append(quote(value.toString())).append('}');
+        }
+    }
+
+    private static long epochNanos() {
+        final Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private record Scope(Span span, Thread owner) {
+        /**
+         * Checks the span applies to the current thread, which is either the thread that made it current or a
+         * virtual thread started for it.
+         */
+        boolean isCurrent() {
+            final Thread current = Thread.currentThread();
+            return current == owner || current.isVirtual();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.limemojito.aws.cleaner.metrics.Exports.quote;
+
+/**
+ * Traces each run as nested {@link Span}s of run, cleaner, resource and AWS call, and writes the spans of the run to
+ * cleaner.trace.file as OTLP JSON so that the run can be loaded into a trace viewer.  Waits and throttling backoff
+ * appear as spans of their own, so parallelism and the critical path can be seen on a timeline.
+ * <p>
+ * Tracing is disabled when no file is set, in which case every span is {@link Span#none()}.
+ */
+@Slf4j
+public class Tracer {
+    private static final String SERVICE_NAME = "aws-cleaner";
+    private static final String SCOPE_NAME = "com.limemojito.aws.cleaner";
+
+    private final Path file;
+    private final Queue<Span> ended = new ConcurrentLinkedQueue<>();
+    private volatile Span run = Span.none();
+
+    /**
+     * Constructs a new Tracer that is disabled.
+     */
+    public Tracer() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new Tracer.
+     *
+     * @param file The file to write the spans of each run to, or null to disable tracing
+     */
+    public Tracer(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Starts the root span of a run in a new trace.
+     *
+     * @param commit true if the run deletes resources, false for a dry run
+     * @return The run's span
+     */
+    public Span startRun(boolean commit) {
+        if (file == null) {
+            return Span.none();
+        }
+        ended.clear();
+        final Span span = new Span(this, Span.randomHex(16), null, "run", Span.Kind.INTERNAL);
+        run = span.attribute("cleaner.commit", commit);
+        return span;
+    }
+
+    /**
+     * Gets the span of the run in progress, which each cleaner's span is a child of.
+     *
+     * @return The run's span, or {@link Span#none()} if tracing is disabled
+     */
+    public Span run() {
+        return run;
+    }
+
+    /**
+     * Writes the spans that ended during the run to cleaner.trace.file if it is set.
+     * A file that can not be written is logged rather than failing the run.
+     */
+    public void export() {
+        if (file != null) {
+            try {
+                Exports.writeAtomically(file, toJson(new ArrayList<>(ended)));
+                log.debug("Trace written to {}", file);
+            } catch (IOException e) {
+                log.warn("Could not write trace to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    void ended(Span span) {
+        ended.add(span);
+    }
+
+    static String toJson(List<Span> spans) {
+        final StringBuilder out = new StringBuilder(256 + spans.size() * 256);
+        out.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\",\"value\":")
+           .append("{\"stringValue\":").append(quote(SERVICE_NAME)).append("}}]},")
+           .append("\"scopeSpans\":[{\"scope\":{\"name\":").append(quote(SCOPE_NAME)).append("},\"spans\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            out.append(i == 0 ? "" : ",");
+            spans.get(i).writeJson(out);
+        }
+        return out.append("]}]}]}\n").toString();
+    }
+}
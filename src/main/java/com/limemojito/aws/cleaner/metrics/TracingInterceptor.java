@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Traces every call made by the region's AWS clients as a client {@link Span} of the span current on the calling
+ * thread, usually the resource or cleaner the call was made for.  It runs straight after the
+ * {@link ApiMetricsInterceptor} so that the span covers the rate limiter's waits and the SDK's retries.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Span> SPAN = new ExecutionAttribute<>("CleanerCallSpan");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("CleanerSpanAttempts");
+
+    private final String region;
+
+    /**
+     * Constructs a new TracingInterceptor.
+     *
+     * @param region The region of the clients
+     */
+    public TracingInterceptor(Region region) {
+        this.region = region.id();
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        final Span parent = Span.current();
+        if (parent.isRecording()) {
+            final String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+            final String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+            executionAttributes.putAttribute(SPAN, parent.child(service + "." + operation, Span.Kind.CLIENT)
+                                                         .attribute("rpc.system", "aws-api")
+                                                         .attribute("rpc.service", service)
+                                                         .attribute("rpc.method", operation)
+                                                         .attribute("cloud.region", region));
+            executionAttributes.putAttribute(ATTEMPTS, 0);
+        }
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        final Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null) {
+            executionAttributes.putAttribute(ATTEMPTS, attempts + 1);
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        final Span span = executionAttributes.getAttribute(SPAN);
+        if (span != null) {
+            span.attribute("http.response.status_code", context.httpResponse().statusCode())
+                .attribute("aws.attempts", executionAttributes.getAttribute(ATTEMPTS))
+                .end();
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        final Span span = executionAttributes.getAttribute(SPAN);
+        if (span != null) {
+            span.attribute("aws.attempts", executionAttributes.getAttribute(ATTEMPTS)).end(context.exception());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a poll loop waiting for a resource to reach a state, such as a stack being deleted.
+ */
+@Name("com.limemojito.aws.cleaner.Wait")
+@Label("Wait")
+@Description("A cleaner polling until a resource reaches a state")
+@Category({"AWS Cleaner"})
+@StackTrace(false)
+public final class WaitEvent extends Event {
+    @Label("Cleaner")
+    private String cleaner;
+    @Label("Resource")
+    private String resourceId;
+    @Label("Polls")
+    private int polls;
+    @Label("Satisfied")
+    private boolean satisfied;
+
+    /**
+     * Commits the event if it is enabled in a recording.
+     *
+     * @param report     The report of the cleaner that waited
+     * @param resourceId The resource waited on, or null if unknown
+     * @param polls      The number of times the state was checked
+     * @param satisfied  true if the state was reached before the timeout
+     */
+    public void commit(CleanerReport report, String resourceId, int polls, boolean satisfied) {
+        if (shouldCommit()) {
+            this.cleaner = report.cleaner();
+            this.resourceId = resourceId;
+            this.polls = polls;
+            this.satisfied = satisfied;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ClientType;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+/**
+ * Client side rate limiter shared by every AWS client of a region, with one token bucket for each service API.
+ * <p>
+ * An API is not limited until AWS first throttles it.  The bucket then starts at half the rate the API was being
+ * called at, cutting the rate in half again on each further throttle and raising it by about one request per second
+ * for each second of successful calls, so parallel cleaners settle close to the API's real limit.  Each attempt made
+ * by a synchronous AWS client waits for a token before it is sent, including attempts made by the SDK's own retries.
+ * <p>
+ * Asynchronous clients send from SDK threads that must not block, so their attempts are not paused here.  Callers
+ * instead compose their call on {@link #whenAllowed(String)}, which completes once a token is available without
+ * holding a thread.  The asynchronous clients still report throttling so that both kinds of client share one rate.
+ * <p>
+ * Attempts are seen as throttled from a 429 or 503 response, or when a call fails with an error AWS reports as
+ * throttling.  {@link Throttle} retries calls that still fail with a jittered backoff.
+ */
+@Component
+@Slf4j
+public class AdaptiveRateLimiter implements ExecutionInterceptor {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_RATE = 0.5;
+    private static final double DECREASE = 0.5;
+    private static final double INCREASE = 1.0;
+    private static final long COOL_DOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final double maxRate;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a new AdaptiveRateLimiter.
+     *
+     * @param enabled true to limit APIs once they are throttled
+     * @param maxRate Maximum requests per second allowed to a throttled API
+     */
+    @Autowired
+    public AdaptiveRateLimiter(@Value("${cleaner.rate.limit}") boolean enabled,
+                               @Value("${cleaner.rate.max}") double maxRate) {
+        this(enabled, maxRate, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(boolean enabled, double maxRate, LongSupplier clock) {
+        if (maxRate < MIN_RATE) {
+            throw new IllegalArgumentException(format("cleaner.rate.max must be at least %.1f, was %s",
+                                                      MIN_RATE,
+                                                      maxRate));
+        }
+        this.enabled = enabled;
+        this.maxRate = maxRate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        if (enabled && executionAttributes.getAttribute(SdkExecutionAttribute.CLIENT_TYPE) != ClientType.ASYNC) {
+            pause(reserve(apiOf(executionAttributes)));
+        }
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        if (enabled) {
+            final SdkHttpResponse response = context.httpResponse();
+            if (response.statusCode() == HttpStatusCode.THROTTLING
+                || response.statusCode() == HttpStatusCode.SERVICE_UNAVAILABLE) {
+                throttled(apiOf(executionAttributes));
+            } else if (response.isSuccessful()) {
+                succeeded(apiOf(executionAttributes));
+            }
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        if (enabled && Throttle.isThrottle(context.exception())) {
+            throttled(apiOf(executionAttributes));
+        }
+    }
+
+    /**
+     * Takes a token for an asynchronous call to an API, completing once the call may be sent.
+     *
+     * @param api The service and operation, eg Sqs.DeleteQueue
+     * @return A stage completing when the call may be sent, already complete if the API is not limited
+     */
+    public CompletableFuture<Void> whenAllowed(String api) {
+        final long nanos = enabled ? reserve(api) : 0;
+        if (nanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Gets the current rate allowed to an API.
+     *
+     * @param api The service and operation, eg Sqs.DeleteQueue
+     * @return Requests per second, or {@link Double#POSITIVE_INFINITY} if the API is not limited
+     */
+    public double getRate(String api) {
+        final Bucket bucket = buckets.get(api);
+        return bucket == null ? Double.POSITIVE_INFINITY : bucket.rate();
+    }
+
+    long reserve(String api) {
+        return bucket(api).reserve();
+    }
+
+    void throttled(String api) {
+        bucket(api).throttled();
+    }
+
+    void succeeded(String api) {
+        bucket(api).succeeded();
+    }
+
+    private Bucket bucket(String api) {
+        return buckets.computeIfAbsent(api, Bucket::new);
+    }
+
+    private static String apiOf(ExecutionAttributes executionAttributes) {
+        return executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)
+               + "." + executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+    }
+
+    private static void pause(long nanos) {
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                // the SDK aborts the call when it sees the interrupt.
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class Bucket {
+        private final String api;
+        private double rate = Double.POSITIVE_INFINITY;
+        private double tokens;
+        private long refilled;
+        private long lastCut;
+        private long windowStart;
+        private int windowCount;
+        private double measuredRate;
+
+        Bucket(String api) {
+            this.api = api;
+            this.windowStart = clock.getAsLong();
+        }
+
+        synchronized double rate() {
+            return rate;
+        }
+
+        /**
+         * Takes a token, going into debt if the bucket is empty so that waiting callers are served in order.
+         *
+         * @return nanoseconds to wait before sending
+         */
+        synchronized long reserve() {
+            final long now = clock.getAsLong();
+            measure(now);
+            if (rate == Double.POSITIVE_INFINITY) {
+                return 0;
+            }
+            tokens = Math.min(Math.max(1.0, rate), tokens + (now - refilled) * rate / NANOS_PER_SECOND);
+            refilled = now;
+            tokens -= 1.0;
+            return tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+        }
+
+        synchronized void throttled() {
+            final long now = clock.getAsLong();
+            final boolean limited = rate != Double.POSITIVE_INFINITY;
+            if (limited && now - lastCut < COOL_DOWN_NANOS) {
+                // attempts already in flight when the rate was cut report the same throttling.
+                return;
+            }
+            final double from = limited ? rate : Math.min(maxRate, observedRate(now));
+            rate = Math.max(MIN_RATE, from * DECREASE);
+            if (!limited) {
+                tokens = 0;
+                refilled = now;
+            }
+            lastCut = now;
+            log.warn("{} throttled, limiting to {} requests per second", api, format("%.1f", rate));
+        }
+
+        synchronized void succeeded() {
+            if (rate != Double.POSITIVE_INFINITY) {
+                rate = Math.min(maxRate, rate + INCREASE / rate);
+            }
+        }
+
+        private void measure(long now) {
+            windowCount++;
+            if (now - windowStart >= NANOS_PER_SECOND) {
+                measuredRate = windowCount * NANOS_PER_SECOND / (now - windowStart);
+                windowStart = now;
+                windowCount = 0;
+            }
+        }
+
+        private double observedRate(long now) {
+            final double elapsed = Math.max(now - windowStart, NANOS_PER_SECOND);
+            return Math.max(measuredRate, windowCount * NANOS_PER_SECOND / elapsed);
+        }
+    }
+}
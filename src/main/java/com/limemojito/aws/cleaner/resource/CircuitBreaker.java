@@ -0,0 +1,279 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.CleanFinishedEvent;
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+/**
+ * Circuit breaker for each AWS service of a region, installed in every AWS client of the region.
+ * <p>
+ * A failure is a call that could not reach the service, or a server error.  Access being denied to a resource is an
+ * expected outcome, such as a protected bucket, so is not counted as a failure.  Once at least
+ * cleaner.circuit.failure.rate percent of the last cleaner.circuit.window calls to a service have failed its circuit
+ * opens, and further calls fail at once with a {@link CircuitOpenException} rather than waiting on timeouts and
+ * retries for every remaining resource.  After cleaner.circuit.cool.down one trial call is let through, closing the
+ * circuit if it succeeds, so daemon runs and long multi region runs try the service again.  A summary of the open
+ * circuits is logged as each clean finishes.
+ */
+@Component
+@Slf4j
+public class CircuitBreaker implements ExecutionInterceptor {
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final int failureRate;
+    private final int window;
+    private final long coolDownNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a new CircuitBreaker.
+     *
+     * @param failureRate Percentage of failed calls that opens a circuit, 0 to disable
+     * @param window      Number of recent calls the failure rate is measured over
+     * @param coolDown    ISO-8601 duration a circuit stays open before a trial call
+     */
+    @Autowired
+    public CircuitBreaker(@Value("${cleaner.circuit.failure.rate}") int failureRate,
+                          @Value("${cleaner.circuit.window}") int window,
+                          @Value("${cleaner.circuit.cool.down}") String coolDown) {
+        this(failureRate, window, Duration.parse(coolDown), System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRate, int window, Duration coolDown, LongSupplier clock) {
+        if (failureRate < 0 || failureRate > 100) {
+            throw new IllegalArgumentException(format("cleaner.circuit.failure.rate must be 0 to 100, was %d",
+                                                      failureRate));
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException(format("cleaner.circuit.window must be at least 1, was %d", window));
+        }
+        this.failureRate = failureRate;
+        this.window = window;
+        this.coolDownNanos = coolDown.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        if (isEnabled()) {
+            acquire(serviceOf(executionAttributes));
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        if (isEnabled()) {
+            record(serviceOf(executionAttributes), null);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        if (isEnabled() && !isOpenCircuit(context.exception())) {
+            record(serviceOf(executionAttributes), context.exception());
+        }
+    }
+
+    /**
+     * Checks if a failure, or any of its causes, is a call rejected by an open circuit.
+     *
+     * @param e The failure
+     * @return true if the call was rejected by an open circuit
+     */
+    public static boolean isOpenCircuit(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears the count of rejected calls as a clean starts.  Open circuits stay open until their cool down ends.
+     *
+     * @param event The run that is starting
+     */
+    @EventListener
+    public void onCleanStarted(CleanStartedEvent event) {
+        circuits.values().forEach(Circuit::clearRejected);
+    }
+
+    /**
+     * Logs each circuit that is open or rejected calls during the clean that finished.
+     *
+     * @param event The run that finished
+     */
+    @EventListener
+    public void onCleanFinished(CleanFinishedEvent event) {
+        circuits.values().forEach(circuit -> circuit.report(event));
+    }
+
+    void acquire(String service) {
+        circuit(service).acquire();
+    }
+
+    void record(String service, Throwable failure) {
+        circuit(service).record(isFailure(failure) ? failure.getMessage() : null);
+    }
+
+    boolean isOpen(String service) {
+        final Circuit circuit = circuits.get(service);
+        return circuit != null && circuit.isOpen();
+    }
+
+    private boolean isEnabled() {
+        return failureRate > 0;
+    }
+
+    private Circuit circuit(String service) {
+        return circuits.computeIfAbsent(service, Circuit::new);
+    }
+
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof SdkServiceException service) {
+            return !service.isThrottlingException() && service.statusCode() >= HttpStatusCode.INTERNAL_SERVER_ERROR;
+        }
+        return e instanceof SdkClientException;
+    }
+
+    private static String serviceOf(ExecutionAttributes executionAttributes) {
+        return executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+    }
+
+    private final class Circuit {
+        private final String service;
+        private final boolean[] outcomes = new boolean[window];
+        private int recorded;
+        private int next;
+        private int failures;
+        private boolean open;
+        private boolean trialInFlight;
+        private long openedAt;
+        private long rejected;
+        private String lastError;
+
+        Circuit(String service) {
+            this.service = service;
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+
+        synchronized void acquire() {
+            if (!open) {
+                return;
+            }
+            if (trialInFlight || clock.getAsLong() - openedAt < coolDownNanos) {
+                rejected++;
+                throw new CircuitOpenException(format("%s circuit open after %d of the last %d calls failed: %s",
+                                                      service,
+                                                      failures,
+                                                      recorded,
+                                                      lastError));
+            }
+            log.info("{} circuit cool down ended, trying the service again", service);
+            trialInFlight = true;
+        }
+
+        /**
+         * Records the outcome of a call.
+         *
+         * @param error The error message of a failed call, or null if the service responded
+         */
+        synchronized void record(String error) {
+            final boolean failed = error != null;
+            if (failed) {
+                lastError = error;
+            }
+            if (open) {
+                if (trialInFlight) {
+                    trialInFlight = false;
+                    if (failed) {
+                        openedAt = clock.getAsLong();
+                        log.warn("{} circuit remains open: {}", service, error);
+                    } else {
+                        close();
+                    }
+                }
+                return;
+            }
+            if (recorded == window && outcomes[next]) {
+                failures--;
+            }
+            outcomes[next] = failed;
+            next = (next + 1) % window;
+            recorded = Math.min(window, recorded + 1);
+            if (failed) {
+                failures++;
+            }
+            if (recorded == window && failures * 100 >= failureRate * window) {
+                open = true;
+                openedAt = clock.getAsLong();
+                log.warn("{} circuit opened after {} of the last {} calls failed: {}",
+                         service,
+                         failures,
+                         window,
+                         error);
+            }
+        }
+
+        synchronized void clearRejected() {
+            rejected = 0;
+        }
+
+        synchronized void report(CleanFinishedEvent event) {
+            if (open || rejected > 0) {
+                log.warn("{} {} circuit {}, {} calls skipped, last error: {}",
+                         event.region(),
+                         service,
+                         open ? "open" : "closed",
+                         rejected,
+                         lastError);
+            }
+        }
+
+        private void close() {
+            open = false;
+            recorded = 0;
+            next = 0;
+            failures = 0;
+            log.info("{} circuit closed", service);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+/**
+ * Thrown instead of calling an AWS service whose circuit is open after repeated failures in the region.
+ */
+public class CircuitOpenException extends IllegalStateException {
+
+    /**
+     * Constructs a new CircuitOpenException.
+     *
+     * @param message Describes the service and why its circuit is open
+     */
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
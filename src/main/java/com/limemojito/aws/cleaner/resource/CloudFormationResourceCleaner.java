@@ -19,6 +19,9 @@ package com.limemojito.aws.cleaner.resource;
 
 import com.limemojito.aws.cleaner.ResourceCleaner;
 import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import com.limemojito.aws.cleaner.metrics.DeleteEvent;
+import com.limemojito.aws.cleaner.metrics.Span;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,25 +29,53 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
 import software.amazon.awssdk.services.cloudformation.model.*;
-import software.amazon.awssdk.services.cloudformation.model.Stack;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter.stripCommaSeparated;
 import static com.limemojito.aws.cleaner.resource.Throttle.performRequestWithThrottle;
 import static com.limemojito.aws.cleaner.resource.WaitFor.waitFor;
 import static java.lang.String.format;
+import static java.util.Collections.disjoint;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
 import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_COMPLETE;
 import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_FAILED;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_IN_PROGRESS;
 
 /**
  * Resource cleaner for AWS CloudFormation stacks.
  * This cleaner is executed with the highest precedence to ensure CloudFormation stacks
  * are deleted before other resources. It handles dependencies between stacks by
  * analyzing exports and imports, and deletes stacks in the correct order.
+ * <p>
+ * The imports of every export are listed once, in parallel, and the stacks are planned into waves by
+ * {@link StackWaves}.  Each wave is deleted after the waves before it, with at most
+ * cleaner.cloudformation.concurrency stacks deleting at once and the next stack of the wave starting as soon as one
+ * is deleted.  Stacks that can not be deleted because a kept stack imports their exports, or because they import each
+ * other's exports, are reported before anything is deleted.
+ * <p>
+ * Only root stacks are deleted as CloudFormation deletes nested stacks with their root.  The exports of a nested
+ * stack, and its imports, are treated as its root stack's.
+ * <p>
+ * Stacks being deleted are waited on together, polling from cleaner.wait.poll.initial and backing off to
+ * cleaner.wait.poll.max.  Each poll refreshes the status of every pending stack with one
+ * paginated ListStacks and releases each stack as soon as its delete completes.  A stack that is not deleted within
+ * cleaner.cloudformation.wait.delete.seconds of its delete starting is given up on, so one stuck stack only holds its
+ * own slot.  A stack is reported as deleted once its delete completes, and as failed when it is given up on.
  */
 @Order(HIGHEST_PRECEDENCE)
 @Service
@@ -53,7 +84,10 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
     private final CloudFormationClient client;
     private final Collection<String> permanentStacks;
     private final int maxDeleteWaitSeconds;
+    private final WaitFor.Polling polling;
+    private final int concurrency;
     private boolean commit;
+    private CleanerReport report = CleanerReport.untracked();
 
     /**
      * Constructs a new CloudFormationResourceCleaner.
@@ -61,14 +95,26 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
      * @param client       The AWS CloudFormation client
      * @param whitelistCsv Comma-separated list of stack name prefixes to preserve
      * @param seconds      Maximum time in seconds to wait for stack deletion to complete
+     * @param pollInitial  ISO-8601 duration between the first checks for deleted stacks
+     * @param pollMax      ISO-8601 duration that the time between checks backs off to
+     * @param concurrency  Maximum stacks deleted, or exports having their imports listed, at the same time
      */
     @Autowired
     public CloudFormationResourceCleaner(CloudFormationClient client,
                                          @Value("${cleaner.cloudformation.whitelist}") String whitelistCsv,
-                                         @Value("${cleaner.cloudformation.wait.delete.seconds}") int seconds) {
+                                         @Value("${cleaner.cloudformation.wait.delete.seconds}") int seconds,
+                                         @Value("${cleaner.wait.poll.initial}") String pollInitial,
+                                         @Value("${cleaner.wait.poll.max}") String pollMax,
+                                         @Value("${cleaner.cloudformation.concurrency}") int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(format("cleaner.cloudformation.concurrency must be at least 1, was %d",
+                                                      concurrency));
+        }
         this.client = client;
         this.permanentStacks = stripCommaSeparated(whitelistCsv);
         this.maxDeleteWaitSeconds = seconds;
+        this.polling = new WaitFor.Polling(Duration.parse(pollInitial), Duration.parse(pollMax));
+        this.concurrency = concurrency;
         if (!permanentStacks.isEmpty()) {
             log.info("Ignoring stacks with prefix {}", this.permanentStacks);
         }
@@ -83,6 +129,15 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
         this.commit = commit;
     }
 
+    /**
+     * {@inheritDoc}
+     * Stacks preserved by {@code cleaner.cloudformation.whitelist} are counted as kept by that rule.
+     */
+    @Override
+    public void setReport(CleanerReport report) {
+        this.report = report;
+    }
+
     /**
      * {@inheritDoc}
      * This implementation ignores the filter as CloudFormation stacks are managed differently.
@@ -96,97 +151,158 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
     /**
      * {@inheritDoc}
      * Cleans AWS CloudFormation stacks by:
-     * 1. First identifying and deleting stacks without exports
-     * 2. Then deleting remaining stacks in dependency order (stacks with unused exports first)
+     * 1. Building the dependency graph of the root stacks from their exports, including their nested stacks' exports,
+     * and the root stacks importing them
+     * 2. Then deleting the stacks in waves, stacks whose exports are not imported by a remaining stack first
      * <p>
      * This approach respects the dependencies between stacks and ensures that stacks
      * are deleted in the correct order to avoid dependency conflicts.
      */
     @Override
     public void clean() {
-        final Map<String, List<String>> stackToExport = retrieveCloudformationExportMap();
-        final List<StackSummary> killList = retrieveStacksToDie();
-
-        log.info("Detecting stacks without exports");
-        final List<StackSummary> noExportStacks = killList.stream()
-                                                          .filter(ss -> !stackToExport.containsKey(ss.stackId()))
-                                                          .collect(toList());
-        log.debug("Found {} stacks without exports", noExportStacks.size());
-
-        log.info("Deleting stacks with no exports");
-        deleteAndWait(noExportStacks);
-        killList.removeAll(noExportStacks);
+        final List<StackSummary> listed = requestStacks();
+        final Map<String, String> rootIds = new HashMap<>();
+        final Map<String, String> rootNames = new HashMap<>();
+        mapNestedStacksToRoots(listed, rootIds, rootNames);
+        final Map<String, List<String>> stackToExport = retrieveCloudformationExportMap(rootIds);
+        final List<StackSummary> killList = retrieveStacksToDie(listed);
+        final Map<String, StackSummary> stacks = new LinkedHashMap<>();
+        killList.forEach(stack -> stacks.put(stack.stackName(), stack));
+        final Map<String, Set<String>> importers = retrieveImporters(killList, stackToExport, rootNames);
+        final StackWaves plan = new StackWaves(stacks.keySet(), importers);
+        if (!plan.blocked().isEmpty()) {
+            log.warn("Preserving stacks {} as their exports are imported by preserved stacks", plan.blocked());
+            plan.blocked().forEach(stack -> report.kept("imported by a preserved stack"));
+        }
+        if (!plan.cyclic().isEmpty()) {
+            log.warn("Can not delete stacks {} as they import each other's exports", plan.cyclic());
+            plan.cyclic().forEach(stack -> report.failed());
+        }
 
-        log.info("Deleting stacks in export dependency order ");
-        if (commit) {
-            iterateRemovingStacksWithUnusedExports(stackToExport, killList);
-        } else {
-            log.info("Would delete {} (in appropriate order)",
-                     killList.stream().map(StackSummary::stackName).collect(toList()));
+        final List<List<String>> waves = plan.waves();
+        final Set<String> undeleted = new HashSet<>();
+        for (int i = 0; i < waves.size(); i++) {
+            if (commit) {
+                log.info("Deleting wave {} of {}: {}", i + 1, waves.size(), waves.get(i));
+                deleteWave(waves.get(i).stream().map(stacks::get).toList(), importers, undeleted);
+            } else {
+                log.info("Would delete wave {} of {}: {}", i + 1, waves.size(), waves.get(i));
+                waves.get(i).forEach(stack -> report.deleted());
+            }
         }
     }
 
-    private void iterateRemovingStacksWithUnusedExports(Map<String, List<String>> stackToExport,
-                                                        List<StackSummary> killList) {
-        do {
-            // relies on a max build time.
-            removeStacksWithExportsNotInUse(stackToExport, killList);
-        } while (!killList.isEmpty());
+    private void deleteWave(List<StackSummary> wave, Map<String, Set<String>> importers, Set<String> undeleted) {
+        final Deque<StackSummary> queued = new ArrayDeque<>(wave.size());
+        for (StackSummary stack : wave) {
+            if (disjoint(importers.getOrDefault(stack.stackName(), emptySet()), undeleted)) {
+                queued.add(stack);
+            } else {
+                log.warn("Skipping stack {} as a stack importing its exports was not deleted", stack.stackName());
+                report.failed();
+                undeleted.add(stack.stackName());
+            }
+        }
+        undeleted.addAll(deleteAndWait(queued));
     }
 
-    private void removeStacksWithExportsNotInUse(Map<String, List<String>> stackToExport, List<StackSummary> killList) {
-        for (Iterator<StackSummary> iterator = killList.iterator(); iterator.hasNext(); ) {
-            final StackSummary stack = iterator.next();
-            final List<String> exports = stackToExport.get(stack.stackId());
-            boolean canKill = true;
-            for (int i = 0; canKill && i < exports.size(); i++) {
-                canKill = checkExportUnused(exports.get(i));
-            }
-            if (canKill) {
-                deleteAndWait(stack);
-                iterator.remove();
+    private Map<String, Set<String>> retrieveImporters(List<StackSummary> killList,
+                                                       Map<String, List<String>> stackToExport,
+                                                       Map<String, String> rootNames) {
+        log.info("Retrieving imports of stack exports");
+        final Map<String, Set<String>> importers = new ConcurrentHashMap<>();
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final List<CompletableFuture<Void>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (StackSummary stack : killList) {
+                final Set<String> stackImporters = importers.computeIfAbsent(stack.stackName(),
+                                                                             key -> ConcurrentHashMap.newKeySet());
+                for (String export : stackToExport.getOrDefault(stack.stackId(), emptyList())) {
+                    requests.add(CompletableFuture.runAsync(() -> {
+                        inFlight.acquireUninterruptibly();
+                        try {
+                            requestImporters(export).stream()
+                                                    .map(importer -> rootNames.getOrDefault(importer, importer))
+                                                    .filter(importer -> !importer.equals(stack.stackName()))
+                                                    .forEach(stackImporters::add);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }, executor));
+                }
             }
         }
-        log.debug("There are {} stacks remaining", killList.size());
+        try {
+            CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return importers;
     }
 
-    private boolean checkExportUnused(String export) {
-        return Throttle.<ListImportsResponse>performRequestWithThrottle(() -> {
-                           try {
-                               return client.listImports(r -> r.exportName(export));
-                           } catch (CloudFormationException e) {
-                               if (e.getMessage().contains("is not imported")) {
-                                   return ListImportsResponse.builder().imports(emptyList()).build();
-                               } else {
-                                   throw e;
-                               }
-                           }
-                       })
-                       .imports()
-                       .isEmpty();
+    private List<String> requestImporters(String export) {
+        return Throttle.<List<String>>performRequestWithThrottle(() -> {
+            try {
+                return client.listImportsPaginator(r -> r.exportName(export)).imports().stream().toList();
+            } catch (CloudFormationException e) {
+                if (e.getMessage().contains("is not imported")) {
+                    return emptyList();
+                } else {
+                    throw e;
+                }
+            }
+        });
     }
 
-    private List<StackSummary> retrieveStacksToDie() {
+    private List<StackSummary> requestStacks() {
         log.info("Requesting stacks");
-        final List<StackSummary> killList = client.listStacksPaginator().stream()
-                                                  .flatMap(r -> r.stackSummaries().stream())
+        return client.listStacksPaginator().stream()
+                     .flatMap(r -> r.stackSummaries().stream())
+                     .collect(toList());
+    }
+
+    private void mapNestedStacksToRoots(List<StackSummary> listed,
+                                        Map<String, String> rootIds,
+                                        Map<String, String> rootNames) {
+        // deleted stacks are left out as a nested stack's name is reused when its root is created again.
+        final Map<String, StackSummary> live = listed.stream()
+                                                     .filter(stack -> stack.stackStatus() != DELETE_COMPLETE)
+                                                     .collect(toMap(StackSummary::stackId, stack -> stack));
+        for (StackSummary stack : live.values()) {
+            if (stack.rootId() != null) {
+                rootIds.put(stack.stackId(), stack.rootId());
+                final StackSummary root = live.get(stack.rootId());
+                if (root != null) {
+                    rootNames.put(stack.stackName(), root.stackName());
+                }
+            }
+        }
+    }
+
+    private List<StackSummary> retrieveStacksToDie(List<StackSummary> listed) {
+        final List<StackSummary> killList = listed.stream()
+                                                  .filter(stack -> stack.rootId() == null)
                                                   .filter(this::isKillStack)
                                                   .collect(toList());
-        log.info("Detected {} stacks to destroy", killList.size());
+        log.info("Detected {} stacks to destroy, skipping {} nested stacks deleted with their root stack",
+                 killList.size(),
+                 listed.stream().filter(stack -> stack.rootId() != null && canBeRemoved(stack.stackStatus())).count());
         return killList;
     }
 
-    private Map<String, List<String>> retrieveCloudformationExportMap() {
+    private Map<String, List<String>> retrieveCloudformationExportMap(Map<String, String> rootIds) {
         log.info("Retrieving stacks with exports");
         final Map<String, List<String>> stackToExport = new HashMap<>();
         client.listExportsPaginator()
               .stream()
               .flatMap(listExportsResponse -> listExportsResponse.exports().stream())
               .forEach(cfmExport -> {
-                  final List<String> exports = stackToExport.computeIfAbsent(cfmExport.exportingStackId(),
-                                                                             (key) -> new ArrayList<>());
+                  // a nested stack's exports are removed with its root stack.
+                  final String stackId = rootIds.getOrDefault(cfmExport.exportingStackId(),
+                                                              cfmExport.exportingStackId());
+                  final List<String> exports = stackToExport.computeIfAbsent(stackId, (key) -> new ArrayList<>());
                   exports.add(cfmExport.name());
-                  stackToExport.put(cfmExport.exportingStackId(), exports);
+                  stackToExport.put(stackId, exports);
               });
         return stackToExport;
     }
@@ -195,10 +311,12 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
         final StackStatus stackStatus = summary.stackStatus();
         final boolean statusOkToRemove = canBeRemoved(stackStatus);
         if (statusOkToRemove) {
+            report.listed(1);
             final String stackName = summary.stackName();
             final boolean killStack = (!isPermStackName(stackName));
             if (!killStack) {
                 log.info("Preserving stack named {}", stackName);
+                report.kept("cleaner.cloudformation.whitelist");
             }
             return killStack;
         } else {
@@ -222,34 +340,68 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
         return false;
     }
 
-    private void deleteAndWait(List<StackSummary> stacks) {
-        // send all deletes then wait for all complete.
-        stacks.forEach(this::deleteAndContinue);
-        if (commit) {
-            stacks.forEach(this::waitForDeleteComplete);
+    private Set<String> deleteAndWait(Deque<StackSummary> queued) {
+        // keyed by stack ID as a deleted stack's name may be reused.
+        final Map<String, Deleting> pending = new LinkedHashMap<>();
+        final Set<String> undeleted = new HashSet<>();
+        // each stack may take the full wait, so the wave is allowed that long for each round of deletes.
+        final int rounds = (queued.size() + concurrency - 1) / concurrency;
+        startDeletes(queued, pending, undeleted);
+        if (pending.isEmpty()) {
+            return undeleted;
         }
-    }
-
-    private void deleteAndWait(StackSummary stack) {
-        deleteAndContinue(stack);
-        if (commit) {
-            waitForDeleteComplete(stack);
+        // the wait's events and spans name the stacks it waits on.
+        final String waitingOn = Stream.concat(pending.values().stream().map(Deleting::stack), queued.stream())
+                                       .map(StackSummary::stackName)
+                                       .collect(joining(","));
+        final boolean deleted = CurrentResource.call(waitingOn, () -> waitFor(
+                Duration.ofSeconds((long) maxDeleteWaitSeconds * rounds), polling, () -> {
+                    releaseDeletedStacks(pending, undeleted);
+                    startDeletes(queued, pending, undeleted);
+                    return pending.isEmpty();
+                }));
+        if (!deleted) {
+            final List<String> waiting = new ArrayList<>();
+            pending.values().forEach(deleting -> waiting.add(deleting.stack().stackName()));
+            queued.forEach(stack -> waiting.add(stack.stackName()));
+            log.warn("Stacks {} were not deleted", waiting);
+            waiting.forEach(stack -> report.failed());
+            undeleted.addAll(waiting);
         }
+        return undeleted;
     }
 
-    private void waitForDeleteComplete(StackSummary stack) {
-        waitFor(maxDeleteWaitSeconds, () -> isStackDeleteCompleted(stack.stackName()));
+    private void startDeletes(Deque<StackSummary> queued, Map<String, Deleting> pending, Set<String> undeleted) {
+        while (pending.size() < concurrency && !queued.isEmpty()) {
+            final StackSummary stack = queued.poll();
+            if (deleteAndContinue(stack)) {
+                pending.put(stack.stackId(),
+                            new Deleting(stack, System.nanoTime() + TimeUnit.SECONDS.toNanos(maxDeleteWaitSeconds)));
+            } else {
+                undeleted.add(stack.stackName());
+            }
+        }
     }
 
-    private void deleteAndContinue(StackSummary stack) {
-        if (commit) {
-            try {
-                Throttle.performWithThrottle(() -> deleteStack(stack));
-            } catch (CloudFormationException e) {
-                log.warn("Could not delete stack {}. {}", stack.stackName(), e.getMessage());
-            }
-        } else {
-            log.info("Would delete stack {}", stack.stackName());
+    private boolean deleteAndContinue(StackSummary stack) {
+        final DeleteEvent event = new DeleteEvent();
+        event.begin();
+        final Span span = report.span().child("resource").attribute("aws.resource.id", stack.stackName());
+        try {
+            span.within(() -> {
+                CurrentResource.run(stack.stackName(), () -> Throttle.performWithThrottle(() -> deleteStack(stack)));
+                return null;
+            });
+            // counted as deleted once the delete completes, as the stack may yet fail to delete.
+            event.commit(report, stack.stackName(), false);
+            span.attribute("cleaner.outcome", "delete started").end();
+            return true;
+        } catch (CloudFormationException e) {
+            log.warn("Could not delete stack {}. {}", stack.stackName(), e.getMessage());
+            report.failed();
+            event.commit(report, stack.stackName(), true);
+            span.end(e);
+            return false;
         }
     }
 
@@ -269,32 +421,40 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
         performDelete(stackName);
     }
 
-    private boolean isStackDeleteCompleted(String stackName) {
-        log.debug("Checking stack {} for delete completed", stackName);
-        final Optional<StackStatus> status = requestStackStatus(stackName);
-        if (status.isPresent() && status.get() == DELETE_FAILED) {
-            log.warn("Delete failure detected on {} attempting retry", stackName);
-            performDelete(stackName);
-        }
-        final boolean deleted = status.isEmpty() || DELETE_COMPLETE == status.get();
-        if (deleted) {
-            log.info("Stack {} is deleted", stackName);
+    private void releaseDeletedStacks(Map<String, Deleting> pending, Set<String> undeleted) {
+        log.debug("Checking {} stacks for delete completed", pending.size());
+        final Map<String, StackStatus> statuses = requestDeleteStatuses();
+        final long now = System.nanoTime();
+        for (Iterator<Deleting> iterator = pending.values().iterator(); iterator.hasNext(); ) {
+            final Deleting deleting = iterator.next();
+            final StackSummary stack = deleting.stack();
+            final StackStatus status = statuses.get(stack.stackId());
+            if (status == DELETE_COMPLETE) {
+                log.info("Stack {} is deleted", stack.stackName());
+                report.deleted();
+                iterator.remove();
+            } else if (now - deleting.deadline() >= 0) {
+                log.warn("Stack {} was not deleted in {} seconds", stack.stackName(), maxDeleteWaitSeconds);
+                report.failed();
+                iterator.remove();
+                undeleted.add(stack.stackName());
+            } else if (status == DELETE_FAILED) {
+                log.warn("Delete failure detected on {} attempting retry", stack.stackName());
+                performDelete(stack.stackName());
+            }
         }
-        return deleted;
     }
 
-    private Optional<StackStatus> requestStackStatus(String stackName) {
-        try {
-            final DescribeStacksResponse result = performRequestWithThrottle(() -> client.describeStacks(r -> r.stackName(
-                    stackName)));
-            final List<Stack> stacks = result.stacks();
-            return stacks.isEmpty()
-                   ? Optional.empty()
-                   : Optional.of(stacks.getFirst().stackStatus());
-        } catch (CloudFormationException e) {
-            log.debug("stack not existing?", e);
-            return Optional.empty();
-        }
+    private Map<String, StackStatus> requestDeleteStatuses() {
+        // stacks that have not started deleting yet are left out, so they remain pending.
+        return performRequestWithThrottle(() -> client.listStacksPaginator(r -> r.stackStatusFilter(DELETE_IN_PROGRESS,
+                                                                                                    DELETE_FAILED,
+                                                                                                    DELETE_COMPLETE))
+                                                      .stackSummaries()
+                                                      .stream()
+                                                      .collect(toMap(StackSummary::stackId,
+                                                                     StackSummary::stackStatus,
+                                                                     (first, second) -> first)));
     }
 
     private void performDelete(String stackName) {
@@ -307,4 +467,10 @@ public class CloudFormationResourceCleaner implements ResourceCleaner {
         }
         log.debug("Deleted stack");
     }
+
+    /**
+     * A stack being deleted and the time, in {@link System#nanoTime()}, it is given up on if still not deleted.
+     */
+    private record Deleting(StackSummary stack, long deadline) {
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the resource being deleted on the current thread, so that polling and throttling backoff recorded by
+ * {@link WaitFor} and {@link Throttle} can name the resource they were waiting on.
+ */
+final class CurrentResource {
+    private static final ThreadLocal<String> RESOURCE = new ThreadLocal<>();
+
+    /**
+     * Performs work on a resource.
+     *
+     * @param resourceId The resource being worked on
+     * @param work       The work to perform
+     */
+    static void run(String resourceId, Runnable work) {
+        call(resourceId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Performs work on a resource that returns a result.
+     *
+     * @param resourceId The resource being worked on
+     * @param work       The work to perform
+     * @param <T>        The type of result
+     * @return The result of the work
+     */
+    static <T> T call(String resourceId, Supplier<T> work) {
+        final String previous = RESOURCE.get();
+        RESOURCE.set(resourceId);
+        try {
+            return work.get();
+        } finally {
+            RESOURCE.set(previous);
+        }
+    }
+
+    /**
+     * Gets the resource being worked on by the current thread.
+     *
+     * @return The resource, or null when no resource is being worked on
+     */
+    static String id() {
+        return RESOURCE.get();
+    }
+}
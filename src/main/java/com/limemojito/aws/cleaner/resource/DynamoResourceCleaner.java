@@ -17,12 +17,17 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Resource cleaner for AWS DynamoDB tables.
@@ -33,6 +38,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DynamoResourceCleaner extends PhysicalResourceCleaner {
     private final DynamoDbClient dbClient;
+    private final ObjectProvider<DynamoDbAsyncClient> asyncClient;
 
     /**
      * {@inheritDoc}
@@ -41,20 +47,53 @@ public class DynamoResourceCleaner extends PhysicalResourceCleaner {
      * @return A list of DynamoDB table names
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         log.debug("Scanning tables");
-        return dbClient.listTablesPaginator().stream().flatMap(p -> p.tableNames().stream()).toList();
+        return dbClient.listTablesPaginator()
+                       .stream()
+                       .flatMap(p -> p.tableNames().stream())
+                       .map(CandidateResource::of)
+                       .toList();
     }
 
     /**
      * {@inheritDoc}
      * Deletes a DynamoDB table identified by its name.
      *
-     * @param physicalId The name of the DynamoDB table to delete
+     * @param candidate The DynamoDB table to delete
      */
     @Override
-    protected void performDelete(String physicalId) {
-        log.info("Deleting resource {}", physicalId);
-        dbClient.deleteTable(r -> r.tableName(physicalId));
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Deleting resource {}", candidate.id());
+        dbClient.deleteTable(r -> r.tableName(candidate.id()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Retrieves all DynamoDB table names using the asynchronous paginator.
+     *
+     * @return A stage completing with the DynamoDB table names
+     */
+    @Override
+    protected CompletionStage<List<CandidateResource>> getCandidatesAsync() {
+        log.debug("Scanning tables");
+        return collect(asyncClient.getObject()
+                                  .listTablesPaginator(ListTablesRequest.builder().build())
+                                  .tableNames()
+                                  .map(CandidateResource::of));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Deletes a DynamoDB table identified by its name using the asynchronous client.
+     *
+     * @param candidate The DynamoDB table to delete
+     */
+    @Override
+    protected CompletionStage<Void> performDeleteAsync(CandidateResource candidate) {
+        log.info("Deleting resource {}", candidate.id());
+        return whenAllowed("DynamoDb.DeleteTable",
+                           () -> asyncClient.getObject().deleteTable(r -> r.tableName(candidate.id())))
+                .thenAccept(response -> log.debug("Deleted table {}", candidate.id()));
     }
 }
@@ -17,6 +17,7 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -49,14 +50,14 @@ public class ElasticBeanstalkResourceCleaner extends PhysicalResourceCleaner {
      * @return A list of Elastic Beanstalk environment names
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         try {
             log.debug("Querying elastic beanstalk resources");
             return client.describeEnvironments()
                          .environments()
                          .stream()
                          .filter(environmentDescription -> environmentDescription.status() == READY)
-                         .map(EnvironmentDescription::environmentName)
+                         .map(ElasticBeanstalkResourceCleaner::candidateOf)
                          .collect(Collectors.toList());
         } catch (SdkClientException | ElasticBeanstalkServiceException e) {
             log.warn("Could not communicate with elastic beanstalk: {}", e.getMessage(), e);
@@ -68,11 +69,20 @@ public class ElasticBeanstalkResourceCleaner extends PhysicalResourceCleaner {
      * {@inheritDoc}
      * Terminates an Elastic Beanstalk environment identified by its name.
      *
-     * @param physicalId The name of the Elastic Beanstalk environment to terminate
+     * @param candidate The Elastic Beanstalk environment to terminate
      */
     @Override
-    protected void performDelete(String physicalId) {
-        log.info("Terminating environment {}", physicalId);
-        client.terminateEnvironment(r -> r.environmentName(physicalId));
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Terminating environment {}", candidate.id());
+        client.terminateEnvironment(r -> r.environmentName(candidate.id()));
+    }
+
+    private static CandidateResource candidateOf(EnvironmentDescription environment) {
+        return CandidateResource.builder()
+                                .id(environment.environmentName())
+                                .arn(environment.environmentArn())
+                                .created(environment.dateCreated())
+                                .status(environment.statusAsString())
+                                .build();
     }
 }
@@ -17,11 +17,11 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.elasticache.ElastiCacheClient;
-import software.amazon.awssdk.services.elasticache.model.CacheCluster;
 
 import java.util.List;
 
@@ -42,13 +42,18 @@ public class ElasticacheResourceCleaner extends PhysicalResourceCleaner {
      * @return A list of ElastiCache cluster IDs
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         log.debug("Getting all physical resource ids");
         return client.describeCacheClustersPaginator()
                      .stream()
                      .flatMap(p -> p.cacheClusters().stream())
                      .filter(cacheCluster -> ("available".equals(cacheCluster.cacheClusterStatus())))
-                     .map(CacheCluster::cacheClusterId)
+                     .map(cacheCluster -> CandidateResource.builder()
+                                                           .id(cacheCluster.cacheClusterId())
+                                                           .arn(cacheCluster.arn())
+                                                           .created(cacheCluster.cacheClusterCreateTime())
+                                                           .status(cacheCluster.cacheClusterStatus())
+                                                           .build())
                      .toList();
     }
 
@@ -56,11 +61,11 @@ public class ElasticacheResourceCleaner extends PhysicalResourceCleaner {
      * {@inheritDoc}
      * Deletes an ElastiCache cluster identified by its ID.
      *
-     * @param physicalId The ID of the ElastiCache cluster to delete
+     * @param candidate The ElastiCache cluster to delete
      */
     @Override
-    protected void performDelete(String physicalId) {
-        log.info("Deleting cache {}", physicalId);
-        client.deleteCacheCluster(r -> r.cacheClusterId(physicalId));
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Deleting cache {}", candidate.id());
+        client.deleteCacheCluster(r -> r.cacheClusterId(candidate.id()));
     }
 }
@@ -17,55 +17,112 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
 import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 /**
  * Resource cleaner for AWS CloudWatch Log Groups.
- * This cleaner identifies and deletes log groups that have no stored data (0 bytes).
+ * This cleaner identifies and deletes log groups that have no stored data (0 bytes).  Groups holding data, or whose
+ * size the listing did not return, are counted as kept.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LogGroupCleaner extends PhysicalResourceCleaner {
     private final CloudWatchLogsClient client;
+    private final ObjectProvider<CloudWatchLogsAsyncClient> asyncClient;
 
     /**
      * {@inheritDoc}
-     * Retrieves a list of all CloudWatch Log Group names.
+     * Retrieves all CloudWatch Log Groups with their stored size.
      *
-     * @return A list of Log Group names
+     * @return A list of Log Groups
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
-        return client.describeLogGroups()
+    protected List<CandidateResource> getCandidates() {
+        return client.describeLogGroupsPaginator()
                      .logGroups()
                      .stream()
-                     .map(LogGroup::logGroupName)
+                     .map(LogGroupCleaner::candidateOf)
                      .collect(Collectors.toList());
     }
 
     /**
      * {@inheritDoc}
-     * Deletes a CloudWatch Log Group only if it has no stored data (0 bytes).
-     * Log groups with data are preserved.
+     * Keeps a CloudWatch Log Group unless it had no stored data (0 bytes) when listed.
      *
-     * @param physicalId The name of the Log Group to delete
+     * @param candidate The Log Group listed
+     * @return The rule keeping the Log Group, or empty if it had no stored data
      */
-    protected void performDelete(String physicalId) {
-        log.debug("Checking group {}", physicalId);
-        if (client.describeLogGroups(r -> r.logGroupNamePrefix(physicalId))
-                  .logGroups()
-                  .getFirst()
-                  .storedBytes() == 0) {
-            log.info("Removing group {}", physicalId);
-            client.deleteLogGroup(r -> r.logGroupName(physicalId));
+    @Override
+    protected Optional<String> keptBy(CandidateResource candidate) {
+        log.debug("Group {} has {} bytes stored", candidate.id(), candidate.sizeBytes());
+        if (candidate.sizeBytes() == null) {
+            return Optional.of("log group size unknown");
         }
+        return candidate.sizeBytes() == 0 ? Optional.empty() : Optional.of("log group has stored data");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Deletes a CloudWatch Log Group that had no stored data (0 bytes) when listed.
+     *
+     * @param candidate The Log Group to delete
+     */
+    @Override
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Removing group {}", candidate.id());
+        client.deleteLogGroup(r -> r.logGroupName(candidate.id()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Retrieves all CloudWatch Log Groups with their stored size using the asynchronous paginator.
+     *
+     * @return A stage completing with the Log Groups
+     */
+    @Override
+    protected CompletionStage<List<CandidateResource>> getCandidatesAsync() {
+        return collect(asyncClient.getObject()
+                                  .describeLogGroupsPaginator(DescribeLogGroupsRequest.builder().build())
+                                  .logGroups()
+                                  .map(LogGroupCleaner::candidateOf));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Deletes a CloudWatch Log Group that had no stored data (0 bytes) when listed, using the asynchronous client.
+     *
+     * @param candidate The Log Group to delete
+     */
+    @Override
+    protected CompletionStage<Void> performDeleteAsync(CandidateResource candidate) {
+        log.info("Removing group {}", candidate.id());
+        return whenAllowed("CloudWatchLogs.DeleteLogGroup",
+                           () -> asyncClient.getObject().deleteLogGroup(r -> r.logGroupName(candidate.id())))
+                .thenAccept(deleted -> log.debug("Removed group {}", candidate.id()));
+    }
+
+    private static CandidateResource candidateOf(LogGroup group) {
+        final Long creationTime = group.creationTime();
+        return CandidateResource.builder()
+                                .id(group.logGroupName())
+                                .arn(group.arn())
+                                .created(creationTime == null ? null : Instant.ofEpochMilli(creationTime))
+                                .sizeBytes(group.storedBytes())
+                                .build();
     }
 }
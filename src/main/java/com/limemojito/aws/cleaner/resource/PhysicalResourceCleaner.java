@@ -17,26 +17,64 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import com.limemojito.aws.cleaner.ResourceCleaner;
 import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import com.limemojito.aws.cleaner.metrics.DeleteEvent;
+import com.limemojito.aws.cleaner.metrics.Span;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import software.amazon.awssdk.core.async.SdkPublisher;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
 
 /**
  * Abstract base class for resource cleaners that handle physical AWS resources.
  * This class provides common functionality for identifying and deleting physical AWS resources.
- * Subclasses need to implement methods to get resource IDs and perform the actual deletion.
+ * Subclasses need to implement methods to list candidate resources and perform the actual deletion.  Candidates carry
+ * the metadata returned by the listing, such as ARN, creation time and size, through filtering to deletion so that
+ * resources do not need to be described again.
+ * <p>
+ * Resources are filtered and deleted one at a time unless {@code cleaner.resource.parallelism} is above 1, in which
+ * case each resource is processed on its own virtual thread with at most that many resources in flight.  A resource
+ * that fails to delete does not stop the others, and the first failure is thrown once every resource is processed.
+ * <p>
+ * The asynchronous template, {@link #cleanAsync()}, lists with {@link #getCandidatesAsync()} and deletes with
+ * {@link #performDeleteAsync(CandidateResource)}, keeping at most {@code cleaner.resource.parallelism} resources in
+ * flight.  Subclasses backed by the SDK asynchronous clients override these, otherwise the synchronous methods are used.
  */
 public abstract class PhysicalResourceCleaner implements ResourceCleaner {
+    /**
+     * Executor for blocking work, such as filtering or synchronous clients, during an asynchronous clean.
+     */
+    protected static final Executor BLOCKING_WORK = Executors.newVirtualThreadPerTaskExecutor();
     private static final Logger LOGGER = LoggerFactory.getLogger(PhysicalResourceCleaner.class);
     @Getter
     private PhysicalDeletionFilter filter;
     @Getter
     private boolean commit;
+    @Getter
+    private int maxInFlight = 1;
+    private CleanerReport report = CleanerReport.untracked();
+    private AdaptiveRateLimiter rateLimiter;
 
     /**
      * {@inheritDoc}
@@ -59,39 +97,305 @@ public abstract class PhysicalResourceCleaner implements ResourceCleaner {
 
     /**
      * {@inheritDoc}
-     * Implements the cleaning process by retrieving all physical resource IDs,
+     * Sets the report that listed, kept, deleted and failed resources are counted in.
+     */
+    @Override
+    public void setReport(CleanerReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Sets the maximum number of resources this cleaner filters and deletes at the same time.
+     * Values above 1 process each resource on a virtual thread.
+     *
+     * @param maxInFlight Maximum resources in flight, 1 for sequential processing
+     */
+    @Autowired
+    public void setMaxInFlight(@Value("${cleaner.resource.parallelism:1}") int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(format("cleaner.resource.parallelism must be at least 1, was %d",
+                                                      maxInFlight));
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Sets the rate limiter that asynchronous calls sent with {@link #whenAllowed(String, Supplier)} wait on.
+     *
+     * @param rateLimiter The region's rate limiter
+     */
+    @Autowired
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Implements the cleaning process by retrieving all candidate resources,
      * filtering them based on the configured deletion filter, and then either
      * logging what would be deleted (in dry-run mode) or actually performing
      * the deletion with throttling.
      */
     @Override
     public void clean() {
-        final List<String> physicalResourceIdList = getPhysicalResourceIds();
-        if (!physicalResourceIdList.isEmpty()) {
-            physicalResourceIdList.stream()
-                                  .filter(p -> filter.shouldDelete(p))
-                                  .forEach((physicalId) -> {
-                                      if (!commit) {
-                                          LOGGER.info("Would delete {}", physicalId);
-                                      } else {
-                                          Throttle.performWithThrottle(() -> performDelete(physicalId));
-                                      }
-                                  });
+        final List<CandidateResource> candidates = getCandidates();
+        report.listed(candidates.size());
+        if (!candidates.isEmpty()) {
+            if (maxInFlight > 1) {
+                cleanConcurrently(candidates);
+            } else {
+                candidates.forEach(this::filterAndDelete);
+            }
+        }
+    }
+
+    private void cleanConcurrently(List<CandidateResource> candidates) {
+        LOGGER.debug("Processing {} resources with up to {} in flight", candidates.size(), maxInFlight);
+        final String cleanerName = getClass().getSimpleName();
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CandidateResource candidate : candidates) {
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    // name the thread after the resource so that log lines remain attributable.
+                    Thread.currentThread().setName(cleanerName + ":" + candidate.id());
+                    try {
+                        filterAndDelete(candidate);
+                    } catch (RuntimeException e) {
+                        // the other resources are still deleted, with the first failure thrown once they are done.
+                        if (!failure.compareAndSet(null, e)) {
+                            failure.get().addSuppressed(e);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void filterAndDelete(CandidateResource candidate) {
+        final Span span = startResourceSpan(candidate);
+        try {
+            span.within(() -> {
+                final Optional<String> keptBy = keptBy(candidate).or(() -> filter.keptBy(candidate));
+                if (keptBy.isPresent()) {
+                    kept(span, keptBy.get());
+                } else if (!commit) {
+                    wouldDelete(span, candidate);
+                } else {
+                    delete(span, candidate);
+                }
+                return null;
+            });
+            span.end();
+        } catch (RuntimeException e) {
+            span.end(e);
+            throw e;
+        }
+    }
+
+    private void delete(Span span, CandidateResource candidate) {
+        final DeleteEvent event = new DeleteEvent();
+        event.begin();
+        try {
+            CurrentResource.run(candidate.id(), () -> Throttle.performWithThrottle(() -> performDelete(candidate)));
+            report.deleted();
+            span.attribute("cleaner.outcome", "deleted");
+            event.commit(report, candidate.id(), false);
+        } catch (RuntimeException e) {
+            report.failed();
+            event.commit(report, candidate.id(), true);
+            throw e;
+        }
+    }
+
+    private Span startResourceSpan(CandidateResource candidate) {
+        return report.span().child("resource").attribute("aws.resource.id", candidate.id());
+    }
+
+    private void kept(Span span, String rule) {
+        report.kept(rule);
+        span.attribute("cleaner.outcome", "kept").attribute("cleaner.kept.by", rule);
+    }
+
+    private void wouldDelete(Span span, CandidateResource candidate) {
+        LOGGER.info("Would delete {}", candidate.id());
+        report.deleted();
+        span.attribute("cleaner.outcome", "would delete");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Implements the asynchronous cleaning process by retrieving all candidate resources, then filtering and
+     * deleting them in {@code cleaner.resource.parallelism} independent lanes so that the number of requests in
+     * flight is bounded.  Filtering is performed on {@link #BLOCKING_WORK}.
+     */
+    @Override
+    public CompletionStage<Void> cleanAsync() {
+        return report.track(this::getCandidatesAsync).thenCompose(candidates -> {
+            report.listed(candidates.size());
+            return filterAndDeleteAsync(candidates);
+        });
+    }
+
+    private CompletionStage<Void> filterAndDeleteAsync(List<CandidateResource> candidates) {
+        return forEachAsync(candidates, this::filterAndDeleteAsync);
+    }
+
+    /**
+     * Performs asynchronous work on each item in {@code cleaner.resource.parallelism} independent lanes, so that at
+     * most that many items are in flight.
+     *
+     * @param items The items to work on
+     * @param work  Starts the work on an item
+     * @param <T>   The type of item
+     * @return A stage completing when the work on every item has completed
+     */
+    protected <T> CompletableFuture<Void> forEachAsync(List<T> items, Function<T, CompletionStage<?>> work) {
+        final int lanes = Math.min(maxInFlight, items.size());
+        final CompletableFuture<?>[] laneFutures = new CompletableFuture[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < items.size(); i += lanes) {
+                final T item = items.get(i);
+                chain = chain.thenCompose(v -> work.apply(item).thenAccept(r -> {
+                }));
+            }
+            laneFutures[lane] = chain;
         }
+        return CompletableFuture.allOf(laneFutures);
+    }
+
+    private CompletableFuture<Void> filterAndDeleteAsync(CandidateResource candidate) {
+        final Span span = startResourceSpan(candidate);
+        return CompletableFuture.supplyAsync(() -> report.track(() -> span.within(
+                                                     () -> keptBy(candidate).or(() -> filter.keptBy(candidate)))),
+                                             BLOCKING_WORK)
+                                .thenCompose(keptBy -> {
+                                    if (keptBy.isPresent()) {
+                                        kept(span, keptBy.get());
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+                                    if (!commit) {
+                                        wouldDelete(span, candidate);
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+                                    return deleteAsync(span, candidate);
+                                })
+                                .whenComplete((v, e) -> span.end(e));
+    }
+
+    private CompletableFuture<Void> deleteAsync(Span span, CandidateResource candidate) {
+        final DeleteEvent event = new DeleteEvent();
+        event.begin();
+        return report.track(() -> span.within(() -> CurrentResource.call(candidate.id(),
+                                                                         () -> performDeleteAsync(candidate))))
+                     .toCompletableFuture()
+                     .whenComplete((v, e) -> {
+                         if (e == null) {
+                             report.deleted();
+                             span.attribute("cleaner.outcome", "deleted");
+                         } else {
+                             report.failed();
+                         }
+                         event.commit(report, candidate.id(), e != null);
+                     });
     }
 
     /**
-     * Retrieves the list of physical resource IDs that are candidates for deletion.
+     * Retrieves the resources that are candidates for deletion, with whatever metadata the listing returned.
      *
-     * @return A list of physical resource IDs
+     * @return A list of candidate resources
      */
-    protected abstract List<String> getPhysicalResourceIds();
+    protected abstract List<CandidateResource> getCandidates();
+
+    /**
+     * Checks if this cleaner keeps a candidate regardless of the deletion filters, such as a resource that still
+     * holds data.  Checked before the filters, a kept candidate is counted as kept by the returned rule rather than
+     * deleted.  The default keeps nothing.
+     *
+     * @param candidate The resource listed
+     * @return The rule keeping the resource, or empty if the filters decide
+     */
+    protected Optional<String> keptBy(CandidateResource candidate) {
+        return Optional.empty();
+    }
+
+    /**
+     * Asynchronously retrieves the resources that are candidates for deletion.
+     * The default performs {@link #getCandidates()} on {@link #BLOCKING_WORK}.
+     *
+     * @return A stage completing with the list of candidate resources
+     */
+    protected CompletionStage<List<CandidateResource>> getCandidatesAsync() {
+        return CompletableFuture.supplyAsync(this::getCandidates, BLOCKING_WORK);
+    }
+
+    /**
+     * Asynchronously performs the deletion of a candidate resource.
+     * This method is called only when commit mode is enabled.  The default performs
+     * {@link #performDelete(CandidateResource)} with throttling on {@link #BLOCKING_WORK}.  Overrides send their
+     * calls with {@link #whenAllowed(String, Supplier)} so that they are rate limited and retried when throttled.
+     *
+     * @param candidate The resource to delete
+     * @return A stage that completes when the resource has been deleted
+     */
+    protected CompletionStage<Void> performDeleteAsync(CandidateResource candidate) {
+        return CompletableFuture.runAsync(() -> CurrentResource.run(candidate.id(),
+                                                                    () -> Throttle.performWithThrottle(
+                                                                            () -> performDelete(candidate))),
+                                          BLOCKING_WORK);
+    }
+
+    /**
+     * Sends an asynchronous AWS call once the rate limiter allows the API, without holding a thread while waiting.
+     * A throttled call is sent again after a backoff, as {@link Throttle#performAsyncWithThrottle(Supplier)} does.
+     * Each attempt is made with this cleaner's report, the current span and the current resource, so that it is
+     * attributed as if it were made on the calling thread.
+     *
+     * @param api  The service and operation, eg Sqs.DeleteQueue
+     * @param call Sends the call
+     * @param <T>  The type of response
+     * @return A stage completing with the response
+     */
+    protected <T> CompletableFuture<T> whenAllowed(String api, Supplier<CompletionStage<T>> call) {
+        final CleanerReport tracked = report;
+        final Span span = Span.current();
+        final String resourceId = CurrentResource.id();
+        return inScope(tracked, span, resourceId, () -> Throttle.performAsyncWithThrottle(
+                () -> allowed(api).thenCompose(v -> inScope(tracked, span, resourceId, call))));
+    }
+
+    private CompletableFuture<Void> allowed(String api) {
+        return rateLimiter == null ? CompletableFuture.completedFuture(null) : rateLimiter.whenAllowed(api);
+    }
+
+    private static <T> T inScope(CleanerReport report, Span span, String resourceId, Supplier<T> work) {
+        return report.track(() -> span.within(() -> CurrentResource.call(resourceId, work)));
+    }
+
+    /**
+     * Collects every item from an SDK asynchronous paginator.
+     *
+     * @param publisher The paginator's item publisher
+     * @param <T>       The type of item published
+     * @return A stage completing with all items once the last page has been received
+     */
+    protected static <T> CompletionStage<List<T>> collect(SdkPublisher<T> publisher) {
+        final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        return publisher.subscribe(items::add).thenApply(v -> List.copyOf(items));
+    }
 
     /**
-     * Performs the actual deletion of a resource identified by its physical ID.
+     * Performs the actual deletion of a candidate resource.
      * This method is called only when commit mode is enabled.
      *
-     * @param physicalId The physical ID of the resource to delete
+     * @param candidate The resource to delete
      */
-    protected abstract void performDelete(String physicalId);
+    protected abstract void performDelete(CandidateResource candidate);
 }
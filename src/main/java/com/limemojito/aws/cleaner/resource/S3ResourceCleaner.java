@@ -17,6 +17,7 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -56,20 +57,22 @@ public class S3ResourceCleaner extends PhysicalResourceCleaner {
 
     /**
      * {@inheritDoc}
-     * Retrieves a list of all S3 bucket names in the current AWS region.
-     * Filters out buckets that are not in the same region as the client.
+     * Retrieves a list of all S3 buckets in the current AWS region.
+     * The listing is limited to the cleaning region by S3 and reports each bucket's region, so buckets do not need
+     * to be checked one at a time.
      *
-     * @return A list of S3 bucket names in the current region
+     * @return A list of S3 buckets in the current region
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         log.info("Checking Buckets");
-        final List<String> collect = client.listBucketsPaginator(r -> r.maxBuckets(bucketMax))
-                                           .stream()
-                                           .flatMap(page -> page.buckets().stream())
-                                           .map(Bucket::name)
-                                           .filter(this::checkRegion)
-                                           .collect(Collectors.toList());
+        final List<CandidateResource> collect = client.listBucketsPaginator(r -> r.maxBuckets(bucketMax)
+                                                                                .bucketRegion(cleaningRegion.id()))
+                                                      .stream()
+                                                      .flatMap(page -> page.buckets().stream())
+                                                      .filter(this::checkRegion)
+                                                      .map(S3ResourceCleaner::candidateOf)
+                                                      .collect(Collectors.toList());
         log.info("Found {} Buckets to remove {}", collect.size(), collect);
         return collect;
     }
@@ -80,23 +83,24 @@ public class S3ResourceCleaner extends PhysicalResourceCleaner {
      * This method handles the complex process of emptying the bucket (deleting all objects
      * and versions) before attempting to delete the bucket itself.
      *
-     * @param physicalId The name of the S3 bucket to delete
+     * @param candidate The S3 bucket to delete
      */
     @Override
-    protected void performDelete(String physicalId) {
-        deleteBucket(physicalId);
+    protected void performDelete(CandidateResource candidate) {
+        deleteBucket(candidate.id());
     }
 
-    private boolean checkRegion(String name) {
-        try {
-            Object bucketRegion = Throttle.performRequestWithThrottle(() -> client.headBucket(r -> r.bucket(name))
-                                                                                  .bucketRegion());
-            log.debug("Bucket {} is in region {}, cleaning {}", name, bucketRegion, cleaningRegion);
-            return cleaningRegion.toString().equals(bucketRegion.toString());
-        } catch (S3Exception e) {
-            log.debug("Can not head bucket {} from region {}", name, cleaningRegion);
-            return false;
-        }
+    private static CandidateResource candidateOf(Bucket bucket) {
+        return CandidateResource.builder()
+                                .id(bucket.name())
+                                .arn("arn:aws:s3:::" + bucket.name())
+                                .created(bucket.creationDate())
+                                .build();
+    }
+
+    private boolean checkRegion(Bucket bucket) {
+        log.debug("Bucket {} is in region {}, cleaning {}", bucket.name(), bucket.bucketRegion(), cleaningRegion);
+        return cleaningRegion.id().equals(bucket.bucketRegion());
     }
 
     private void deleteBucket(String bucketName) {
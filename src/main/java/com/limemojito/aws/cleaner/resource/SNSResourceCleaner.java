@@ -17,16 +17,24 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
+import com.limemojito.aws.cleaner.ResourceCleaner;
+import com.limemojito.aws.cleaner.metrics.Span;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.ListTopicsRequest;
 import software.amazon.awssdk.services.sns.model.Subscription;
 import software.amazon.awssdk.services.sns.model.Topic;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +54,16 @@ public class SNSResourceCleaner extends PhysicalResourceCleaner {
     private final Pattern queueArnMatcher = Pattern.compile("^arn:aws:sqs:(.+?):(.+?):(.+)");
     private final SnsClient sns;
     private final SqsClient sqs;
+    private final ObjectProvider<SnsAsyncClient> asyncSns;
+
+    /**
+     * {@inheritDoc}
+     * Queues are removed first so that the dangling subscription sweep sees them as deleted.
+     */
+    @Override
+    public Collection<Class<? extends ResourceCleaner>> getPredecessors() {
+        return List.of(SQSResourceCleaner.class);
+    }
 
     /**
      * {@inheritDoc}
@@ -55,6 +73,19 @@ public class SNSResourceCleaner extends PhysicalResourceCleaner {
     @Override
     public void clean() {
         super.clean();
+        cleanSubscriptions();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Extends the base implementation to also clean up dangling SQS subscriptions once the topics are removed.
+     */
+    @Override
+    public CompletionStage<Void> cleanAsync() {
+        return super.cleanAsync().thenRunAsync(this::cleanSubscriptions, BLOCKING_WORK);
+    }
+
+    private void cleanSubscriptions() {
         log.debug("Cleaning SNS Subscriptions");
         sns.listSubscriptionsPaginator()
            .stream()
@@ -69,12 +100,12 @@ public class SNSResourceCleaner extends PhysicalResourceCleaner {
      * @return A list of SNS topic ARNs
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         log.debug("Getting SNS Topics");
         return sns.listTopicsPaginator()
                   .stream()
                   .flatMap(page -> page.topics().stream())
-                  .map(Topic::topicArn)
+                  .map(SNSResourceCleaner::candidateOf)
                   .toList();
     }
 
@@ -83,17 +114,61 @@ public class SNSResourceCleaner extends PhysicalResourceCleaner {
      * Deletes an SNS topic and all its subscriptions.
      * First unsubscribes all subscriptions to the topic, then deletes the topic itself.
      *
-     * @param physicalId The ARN of the SNS topic to delete
+     * @param candidate The SNS topic to delete
      */
     @Override
-    protected void performDelete(String physicalId) {
-        log.info("Deleting Topic {} and all subscriptions", physicalId);
-        sns.listSubscriptionsByTopicPaginator(r -> r.topicArn(physicalId))
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Deleting Topic {} and all subscriptions", candidate.id());
+        sns.listSubscriptionsByTopicPaginator(r -> r.topicArn(candidate.id()))
            .stream()
            .flatMap(page -> page.subscriptions().stream())
            .map(Subscription::subscriptionArn)
            .forEach(this::unsubscribe);
-        sns.deleteTopic(r -> r.topicArn(physicalId));
+        sns.deleteTopic(r -> r.topicArn(candidate.id()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Retrieves all SNS topic ARNs using the asynchronous paginator.
+     *
+     * @return A stage completing with the SNS topic ARNs
+     */
+    @Override
+    protected CompletionStage<List<CandidateResource>> getCandidatesAsync() {
+        log.debug("Getting SNS Topics");
+        return collect(asyncSns.getObject().listTopicsPaginator(ListTopicsRequest.builder().build())
+                               .topics()
+                               .map(SNSResourceCleaner::candidateOf));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Unsubscribes all subscriptions to the topic, at most {@code cleaner.resource.parallelism} at a time, then
+     * deletes the topic, using the asynchronous client.
+     *
+     * @param candidate The SNS topic to delete
+     */
+    @Override
+    protected CompletionStage<Void> performDeleteAsync(CandidateResource candidate) {
+        log.info("Deleting Topic {} and all subscriptions", candidate.id());
+        final SnsAsyncClient client = asyncSns.getObject();
+        final Span span = Span.current();
+        return collect(client.listSubscriptionsByTopicPaginator(r -> r.topicArn(candidate.id())).subscriptions())
+                .thenCompose(subscriptions -> span.within(() -> forEachAsync(
+                        subscriptions.stream().map(Subscription::subscriptionArn).toList(),
+                        subArn -> {
+                            log.info("Unsubscribe {}", subArn);
+                            return whenAllowed("Sns.Unsubscribe",
+                                               () -> client.unsubscribe(r -> r.subscriptionArn(subArn)));
+                        })))
+                .thenCompose(v -> span.within(() -> whenAllowed("Sns.DeleteTopic",
+                                                                 () -> client.deleteTopic(
+                                                                         r -> r.topicArn(candidate.id())))))
+                .thenAccept(response -> log.debug("Deleted Topic {}", candidate.id()));
+    }
+
+    private static CandidateResource candidateOf(Topic topic) {
+        return CandidateResource.builder().id(topic.topicArn()).arn(topic.topicArn()).build();
     }
 
     private void removeSqsSubscription(Subscription subscription) {
@@ -17,12 +17,17 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.CandidateResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.ListQueuesRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Resource cleaner for AWS SQS queues.
@@ -33,6 +38,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SQSResourceCleaner extends PhysicalResourceCleaner {
     private final SqsClient client;
+    private final ObjectProvider<SqsAsyncClient> asyncClient;
 
     /**
      * {@inheritDoc}
@@ -41,11 +47,12 @@ public class SQSResourceCleaner extends PhysicalResourceCleaner {
      * @return A list of SQS queue URLs
      */
     @Override
-    protected List<String> getPhysicalResourceIds() {
+    protected List<CandidateResource> getCandidates() {
         log.debug("Getting SQS Queue URLs");
         return client.listQueuesPaginator()
                      .stream()
                      .flatMap(page -> page.queueUrls().stream())
+                     .map(CandidateResource::of)
                      .toList();
     }
 
@@ -53,11 +60,40 @@ public class SQSResourceCleaner extends PhysicalResourceCleaner {
      * {@inheritDoc}
      * Deletes an SQS queue identified by its URL.
      *
-     * @param physicalId The URL of the SQS queue to delete
+     * @param candidate The SQS queue to delete
      */
     @Override
-    protected void performDelete(String physicalId) {
-        log.info("Deleting Queue {}", physicalId);
-        client.deleteQueue(r -> r.queueUrl(physicalId));
+    protected void performDelete(CandidateResource candidate) {
+        log.info("Deleting Queue {}", candidate.id());
+        client.deleteQueue(r -> r.queueUrl(candidate.id()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Retrieves all SQS queue URLs using the asynchronous paginator.
+     *
+     * @return A stage completing with the SQS queue URLs
+     */
+    @Override
+    protected CompletionStage<List<CandidateResource>> getCandidatesAsync() {
+        log.debug("Getting SQS Queue URLs");
+        return collect(asyncClient.getObject()
+                                  .listQueuesPaginator(ListQueuesRequest.builder().build())
+                                  .queueUrls()
+                                  .map(CandidateResource::of));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Deletes an SQS queue identified by its URL using the asynchronous client.
+     *
+     * @param candidate The SQS queue to delete
+     */
+    @Override
+    protected CompletionStage<Void> performDeleteAsync(CandidateResource candidate) {
+        log.info("Deleting Queue {}", candidate.id());
+        return whenAllowed("Sqs.DeleteQueue",
+                           () -> asyncClient.getObject().deleteQueue(r -> r.queueUrl(candidate.id())))
+                .thenAccept(response -> log.debug("Deleted Queue {}", candidate.id()));
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.disjoint;
+import static java.util.Collections.emptySet;
+
+/**
+ * Plans the order CloudFormation stacks are deleted in from the stacks that import each stack's exports.
+ * A stack can only be deleted once every stack importing its exports has been deleted, so stacks are grouped into
+ * waves where each wave only imports from later waves, and the stacks of a wave can be deleted at the same time.
+ * <p>
+ * Stacks that can never be deleted are found before anything is deleted: stacks whose exports are imported by a
+ * stack that is kept, directly or through other stacks, are blocked, and stacks that import each other's exports are
+ * cyclic.
+ */
+final class StackWaves {
+    private final List<List<String>> waves = new ArrayList<>();
+    private final Set<String> blocked = new LinkedHashSet<>();
+    private final Set<String> cyclic = new LinkedHashSet<>();
+
+    /**
+     * Plans the waves.
+     *
+     * @param stacks    Names of the stacks to delete, in their preferred order
+     * @param importers Names of the stacks importing any of a stack's exports, by exporting stack name
+     */
+    StackWaves(Collection<String> stacks, Map<String, Set<String>> importers) {
+        final Set<String> remaining = new LinkedHashSet<>(stacks);
+        // a stack imported by a stack that is not deleted is blocked, which blocks the stacks it imports from.
+        List<String> newlyBlocked;
+        do {
+            newlyBlocked = remaining.stream()
+                                    .filter(stack -> !remaining.containsAll(importersOf(importers, stack)))
+                                    .toList();
+            newlyBlocked.forEach(remaining::remove);
+            blocked.addAll(newlyBlocked);
+        } while (!newlyBlocked.isEmpty());
+        while (!remaining.isEmpty()) {
+            final List<String> wave = remaining.stream()
+                                               .filter(stack -> disjoint(importersOf(importers, stack), remaining))
+                                               .toList();
+            if (wave.isEmpty()) {
+                cyclic.addAll(remaining);
+                break;
+            }
+            wave.forEach(remaining::remove);
+            waves.add(wave);
+        }
+    }
+
+    /**
+     * Gets the waves to delete in order.
+     *
+     * @return The names of the stacks in each wave
+     */
+    List<List<String>> waves() {
+        return waves;
+    }
+
+    /**
+     * Gets the stacks that can not be deleted as a kept stack imports their exports.
+     *
+     * @return The names of the blocked stacks
+     */
+    Set<String> blocked() {
+        return blocked;
+    }
+
+    /**
+     * Gets the stacks that can not be deleted as they import each other's exports.
+     *
+     * @return The names of the cyclic stacks
+     */
+    Set<String> cyclic() {
+        return cyclic;
+    }
+
+    private static Set<String> importersOf(Map<String, Set<String>> importers, String stack) {
+        return importers.getOrDefault(stack, emptySet());
+    }
+}
@@ -17,21 +17,35 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.metrics.BackoffEvent;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import com.limemojito.aws.cleaner.metrics.Span;
 import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
 /**
  * Utility class for handling AWS API throttling.
  * This class provides methods to execute AWS API calls with automatic retry logic
- * when throttling occurs, using an exponential backoff strategy.
+ * when throttling occurs, using an exponential backoff with full jitter so that threads throttled together do not
+ * retry together.  The rate of calls to each API is governed by the {@link AdaptiveRateLimiter} installed in every
+ * AWS client; this class only retries calls that still fail after the SDK's own retries.  Each backoff is recorded as a
+ * {@link BackoffEvent} for Java Flight Recorder and as a span in the run's trace.
  */
 @Slf4j
 public class Throttle {
-    private static final int BACKOFF_SECONDS = 2;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
     private static final int MAX_ATTEMPTS = 7;
 
     /**
@@ -69,7 +83,10 @@ public class Throttle {
      * @param action The AWS action to execute
      */
     public static void performWithThrottle(AwsAction action) {
-        performWithThrottle(action, 1);
+        performRequestWithThrottle(() -> {
+            action.performAction();
+            return null;
+        });
     }
 
     /**
@@ -79,57 +96,119 @@ public class Throttle {
      * @param request The AWS request to execute
      * @param <T>     The type of the result returned by the request
      * @return The result of the AWS request
+     * @throws IllegalStateException if the request is still throttled after the maximum attempts
      */
+    @SuppressWarnings("unchecked")
     public static <T> T performRequestWithThrottle(AwsRequest request) {
-        return performRequestWithThrottle(request, 1);
-    }
-
-    private static void performWithThrottle(AwsAction action, int attemptCount) {
-        try {
-            giveUp(attemptCount);
-            action.performAction();
-        } catch (AwsServiceException e) {
-            if (isThrottle(e)) {
-                waitForAttempt(attemptCount);
-                performWithThrottle(action, ++attemptCount);
-            } else {
-                throw e;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return (T) request.performRequest();
+            } catch (SdkServiceException e) {
+                if (!isThrottle(e)) {
+                    throw e;
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new IllegalStateException(format("Timeout AWS operation after %d attempts", MAX_ATTEMPTS),
+                                                    e);
+                }
+                waitForAttempt(attempt);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> T performRequestWithThrottle(AwsRequest request, int attemptCount) {
+    /**
+     * Performs an asynchronous AWS request with throttling protection.
+     * If the request is throttled, it is sent again after an exponential backoff that waits on a delayed executor
+     * rather than a thread.  The backoff is recorded against the report, span and resource current when this method
+     * is called.
+     *
+     * @param request Sends the AWS request, called again for each attempt
+     * @param <T>     The type of the result returned by the request
+     * @return A stage completing with the result, or failing with an IllegalStateException if the request is still
+     * throttled after the maximum attempts
+     */
+    public static <T> CompletableFuture<T> performAsyncWithThrottle(Supplier<CompletionStage<T>> request) {
+        return attemptAsync(request,
+                            1,
+                            CleanerReport.current(),
+                            Span.current(),
+                            CurrentResource.id());
+    }
+
+    private static <T> CompletableFuture<T> attemptAsync(Supplier<CompletionStage<T>> request,
+                                                         int attempt,
+                                                         CleanerReport report,
+                                                         Span parent,
+                                                         String resourceId) {
+        final CompletableFuture<T> sent;
         try {
-            giveUp(attemptCount);
-            return (T) request.performRequest();
-        } catch (AwsServiceException e) {
-            if (isThrottle(e)) {
-                waitForAttempt(attemptCount);
-                return performRequestWithThrottle(request, ++attemptCount);
-            } else {
-                throw e;
-            }
+            sent = request.get().toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return sent.handle((result, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (!isThrottle(e)) {
+                return CompletableFuture.<T>failedFuture(e);
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                return CompletableFuture.<T>failedFuture(new IllegalStateException(
+                        format("Timeout AWS operation after %d attempts", MAX_ATTEMPTS),
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+            }
+            final long retryMillis = backoffMillis(attempt);
+            log.warn("Throttled API calls detected, backoff {} ms", retryMillis);
+            final BackoffEvent event = new BackoffEvent();
+            event.begin();
+            final Span span = parent.child("backoff")
+                                    .attribute("aws.resource.id", resourceId)
+                                    .attribute("cleaner.attempt", attempt);
+            return CompletableFuture.runAsync(() -> {
+                report.backedOff(Duration.ofMillis(retryMillis));
+                event.commit(resourceId, attempt);
+                span.end();
+            }, CompletableFuture.delayedExecutor(retryMillis, TimeUnit.MILLISECONDS))
+                                    .thenCompose(v -> attemptAsync(request, attempt + 1, report, parent, resourceId));
+        }).thenCompose(Function.identity());
     }
 
-    private static void giveUp(int attemptCount) {
-        if (attemptCount > MAX_ATTEMPTS) {
-            throw new IllegalStateException(format("Timeout AWS operation after %d attempts", MAX_ATTEMPTS));
-        }
+    /**
+     * Checks if a failure is AWS throttling, such as Throttling, ThrottlingException, RequestLimitExceeded, SlowDown
+     * or TooManyRequestsException error codes or a 429 status.
+     *
+     * @param e The failure, which may be wrapped by an asynchronous stage
+     * @return true if the failure is throttling
+     */
+    static boolean isThrottle(Throwable e) {
+        final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof SdkServiceException service && service.isThrottlingException();
     }
 
-    private static boolean isThrottle(AwsServiceException e) {
-        return "Throttling".equals(e.awsErrorDetails().errorCode());
+    private static long backoffMillis(int attemptCount) {
+        final long ceiling = Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << (attemptCount - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
     }
 
     private static void waitForAttempt(int attemptCount) {
+        final long retryMillis = backoffMillis(attemptCount);
+        log.warn("Throttled API calls detected, backoff {} ms", retryMillis);
+        final BackoffEvent event = new BackoffEvent();
+        event.begin();
+        final Span span = Span.current()
+                              .child("backoff")
+                              .attribute("aws.resource.id", CurrentResource.id())
+                              .attribute("cleaner.attempt", attemptCount);
         try {
-            final int retrySeconds = attemptCount * BACKOFF_SECONDS;
-            log.warn("Throttled API calls detected, backoff {} seconds", retrySeconds);
-            Thread.sleep(Duration.ofSeconds(retrySeconds).toMillis());
-        } catch (InterruptedException e1) {
-            log.warn("Interrupted");
+            Thread.sleep(retryMillis);
+            CleanerReport.current().backedOff(Duration.ofMillis(retryMillis));
+            event.commit(CurrentResource.id(), attemptCount);
+            span.end();
+        } catch (InterruptedException e) {
+            span.end(e);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during throttling backoff", e);
         }
     }
 }
@@ -17,20 +17,82 @@
 
 package com.limemojito.aws.cleaner.resource;
 
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import com.limemojito.aws.cleaner.metrics.Span;
+import com.limemojito.aws.cleaner.metrics.WaitEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+
 /**
  * Utility class for waiting for conditions to become true.
- * This class provides methods to wait for a specified condition to become true,
- * with configurable timeout and polling intervals.
+ * Conditions are registered on a scheduler shared by every cleaner and checked on a virtual thread each poll, so
+ * hundreds of waits share a couple of threads rather than pinning one each.  Polling starts fast and backs off to a
+ * maximum interval, see {@link Polling}, until the condition is true or the deadline passes.
+ * <p>
+ * The time waited is added to the cleaner's run report, and each wait is recorded as a {@link WaitEvent} for Java
+ * Flight Recorder and as a span in the run's trace.
  */
 @Slf4j
 public class WaitFor {
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newScheduledThreadPool(2, Thread.ofPlatform().name("wait-for-", 1).daemon().factory());
+    private static final Executor CHECKS = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Duration BACKSTOP = Duration.ofMinutes(1);
+
+    /**
+     * How often a condition is checked: first after the initial interval, then at an interval that doubles up to
+     * the maximum.
+     *
+     * @param initial The interval before the second check
+     * @param max     The longest interval between checks
+     */
+    public record Polling(Duration initial, Duration max) {
+        /**
+         * Polling from 1 second, backing off to 15 seconds.
+         */
+        public static final Polling DEFAULT = new Polling(Duration.ofSeconds(1), Duration.ofSeconds(15));
+
+        /**
+         * Validates the intervals.
+         *
+         * @throws IllegalArgumentException if an interval is not positive, or the maximum is below the initial
+         */
+        public Polling {
+            if (initial.isNegative() || initial.isZero() || max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException(format("Polling must start above zero and back off to at least "
+                                                          + "the initial interval, was %s to %s", initial, max));
+            }
+        }
 
-    private static final int DEFAULT_POLLING_DELAY = 5000;
+        /**
+         * Polls at a fixed interval.
+         *
+         * @param interval The interval between checks
+         * @return The polling
+         */
+        public static Polling fixed(Duration interval) {
+            return new Polling(interval, interval);
+        }
+
+        private Duration next(Duration interval) {
+            final Duration doubled = interval.multipliedBy(2);
+            return doubled.compareTo(max) > 0 ? max : doubled;
+        }
+    }
 
     /**
-     * Waits for a specified condition to become true, with a custom polling delay.
+     * Waits for a specified condition to become true, with a fixed polling delay.
      *
      * @param maxWaitSeconds Maximum time to wait in seconds
      * @param pollingDelayMs Delay between polling attempts in milliseconds
@@ -38,22 +100,64 @@ public class WaitFor {
      * @return true if the condition became true within the timeout period, false otherwise
      */
     public static boolean waitFor(int maxWaitSeconds, long pollingDelayMs, SituationToBecomeTrue t) {
-        boolean timeout = waitForSituationOrTimeout(maxWaitSeconds, pollingDelayMs, t);
-        if (!timeout) {
-            log.warn("Situation did not occur in {} seconds", maxWaitSeconds);
-        }
-        return timeout;
+        return waitFor(Duration.ofSeconds(maxWaitSeconds), Polling.fixed(Duration.ofMillis(pollingDelayMs)), t);
     }
 
     /**
-     * Waits for a specified condition to become true, using the default polling delay.
+     * Waits for a specified condition to become true, using the default polling.
      *
      * @param maxWaitSeconds Maximum time to wait in seconds
      * @param t The condition to check
      * @return true if the condition became true within the timeout period, false otherwise
      */
     public static boolean waitFor(int maxWaitSeconds, SituationToBecomeTrue t) {
-        return waitFor(maxWaitSeconds, DEFAULT_POLLING_DELAY, t);
+        return waitFor(Duration.ofSeconds(maxWaitSeconds), Polling.DEFAULT, t);
+    }
+
+    /**
+     * Waits for a specified condition to become true.  If the waiting thread is interrupted the wait is cancelled,
+     * the interrupt is kept and false is returned.  Should the wait not complete itself shortly after its deadline,
+     * it is cancelled and false is returned rather than blocking forever.
+     *
+     * @param maxWait Maximum time to wait
+     * @param polling How often to check the condition
+     * @param t       The condition to check
+     * @return true if the condition became true within the timeout period, false otherwise
+     */
+    public static boolean waitFor(Duration maxWait, Polling polling, SituationToBecomeTrue t) {
+        final CompletableFuture<Boolean> wait = waitForAsync(maxWait, polling, t);
+        final Duration limit = maxWait.plus(polling.max()).plus(BACKSTOP);
+        try {
+            return wait.get(limit.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            wait.cancel(false);
+            Thread.currentThread().interrupt();
+            log.warn("Wait interrupted");
+            return false;
+        } catch (TimeoutException e) {
+            wait.cancel(false);
+            log.warn("Wait did not complete after {} seconds", limit.toSeconds());
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Wait failed", e.getCause());
+        }
+    }
+
+    /**
+     * Starts waiting for a specified condition to become true without blocking the calling thread.  The condition
+     * is checked straight away, then on the shared scheduler until it is true or the deadline passes.  Cancelling
+     * the returned future stops polling.  A failure to check the condition, other than the condition itself
+     * throwing, completes the future exceptionally.
+     *
+     * @param maxWait Maximum time to wait
+     * @param polling How often to check the condition
+     * @param t       The condition to check
+     * @return A future completing with true if the condition became true within the timeout period, false otherwise
+     */
+    public static CompletableFuture<Boolean> waitForAsync(Duration maxWait, Polling polling, SituationToBecomeTrue t) {
+        final Poll poll = new Poll(maxWait, polling, t);
+        poll.check();
+        return poll.result;
     }
 
     /**
@@ -72,32 +176,93 @@ public class WaitFor {
         boolean situation() throws Exception;
     }
 
-    private static boolean waitForSituationOrTimeout(int maxWaitSeconds, long pollingDelayMs, SituationToBecomeTrue t) {
-        final long endTime = System.currentTimeMillis() + (1_000L * maxWaitSeconds);
-        boolean situation = checkSituation(t);
-        while (!situation && endTime > System.currentTimeMillis()) {
-            situation = pollWait(pollingDelayMs, t);
+    private static final class Poll {
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private final SituationToBecomeTrue situation;
+        private final Polling polling;
+        private final long started = System.nanoTime();
+        private final long deadline;
+        // the waiter's cleaner, trace and resource, as checks run on threads started by the scheduler.
+        private final CleanerReport report = CleanerReport.current();
+        private final Span span = Span.current().child("wait").attribute("aws.resource.id", CurrentResource.id());
+        private final String resourceId = CurrentResource.id();
+        private final WaitEvent event = new WaitEvent();
+        private Duration interval;
+        private int polls;
+        private Future<?> next;
+
+        private Poll(Duration maxWait, Polling polling, SituationToBecomeTrue situation) {
+            this.situation = situation;
+            this.polling = polling;
+            this.deadline = started + maxWait.toNanos();
+            this.interval = polling.initial();
+            event.begin();
+            result.whenComplete((satisfied, e) -> finished(Boolean.TRUE.equals(satisfied), e));
         }
-        return situation;
-    }
 
-    private static boolean pollWait(long pollingDelayMs, SituationToBecomeTrue t) {
-        try {
-            Thread.sleep(pollingDelayMs);
-            return checkSituation(t);
-        } catch (InterruptedException e) {
-            log.warn("Polling rate interrupted");
-            return false;
+        private void check() {
+            try {
+                CHECKS.execute(this::checkOnce);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
         }
-    }
 
-    private static boolean checkSituation(SituationToBecomeTrue t) {
-        try {
-            return t.situation();
-        } catch (Exception e) {
-            log.warn("Situation threw an exception: {}", e.getClass().getSimpleName());
-            log.debug("Exception trace: ", e);
-            return false;
+        private void checkOnce() {
+            try {
+                if (result.isDone()) {
+                    return;
+                }
+                if (report.track(() -> span.within(() -> CurrentResource.call(resourceId, this::checkSituation)))) {
+                    result.complete(true);
+                } else {
+                    scheduleNext();
+                }
+            } catch (Throwable e) {
+                // anything escaping here would leave the waiter blocked, so it completes the wait instead.
+                result.completeExceptionally(e);
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                result.complete(false);
+            } else if (!result.isDone()) {
+                final long delay = Math.min(interval.toNanos(), remaining);
+                interval = polling.next(interval);
+                next = SCHEDULER.schedule(this::check, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean checkSituation() {
+            synchronized (this) {
+                polls++;
+            }
+            try {
+                return situation.situation();
+            } catch (Exception e) {
+                log.warn("Situation threw an exception: {}", e.getClass().getSimpleName());
+                log.debug("Exception trace: ", e);
+                return false;
+            }
+        }
+
+        private synchronized void finished(boolean satisfied, Throwable failure) {
+            if (next != null) {
+                next.cancel(false);
+            }
+            final Duration waited = Duration.ofNanos(System.nanoTime() - started);
+            if (failure != null && !result.isCancelled()) {
+                log.warn("Wait failed after {} seconds: {}", waited.toSeconds(), failure.toString());
+            } else if (!satisfied && !result.isCancelled()) {
+                log.warn("Situation did not occur in {} seconds", waited.toSeconds());
+            }
+            report.waited(waited);
+            event.commit(report, resourceId, polls, satisfied);
+            span.attribute("cleaner.polls", polls)
+                .attribute("cleaner.satisfied", satisfied)
+                .end(result.isCancelled() ? null : failure);
         }
     }
 }
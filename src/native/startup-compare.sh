@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+#
+# Copyright 2011-2025 Lime Mojito Pty Ltd
+#
+#    Licensed under the Apache License, Version 2.0 (the "License");
+#    you may not use this file except in compliance with the License.
+#    You may obtain a copy of the License at
+#
+#        http://www.apache.org/licenses/LICENSE-2.0
+#
+#    Unless required by applicable law or agreed to in writing, software
+#    distributed under the License is distributed on an "AS IS" BASIS,
+#    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+#    See the License for the specific language governing permissions and
+#    limitations under the License.
+#
+#
+# Compares the startup time of the native executable against the jar build.
+# Each build performs a dry run with every cleaner excluded, so the full Spring context hierarchy is created
+# without calling AWS.  Fails if the native executable does not start faster than the jar.
+#
+# Usage: startup-compare.sh <jar> <native executable> [runs]
+set -euo pipefail
+# command substitutions exit on the first failure as well.
+shopt -s inherit_errexit
+
+JAR="$1"
+NATIVE="$2"
+RUNS="${3:-5}"
+CLEANER_ARGS=(-Dcleaner.include=none -Dcleaner.role.arn= -Dcleaner.mfa.arn=)
+
+average_ms() {
+  local total=0
+  for ((i = 0; i < RUNS; i++)); do
+    local start end
+    start=$(date +%s%N)
+    if ! "$@" >/dev/null 2>&1; then
+      echo "Startup run failed: $*" >&2
+      return 1
+    fi
+    end=$(date +%s%N)
+    total=$((total + (end - start) / 1000000))
+  done
+  echo $((total / RUNS))
+}
+
+JAR_MS=$(average_ms java "${CLEANER_ARGS[@]}" -jar "$JAR") || exit 1
+NATIVE_MS=$(average_ms "$NATIVE" "${CLEANER_ARGS[@]}") || exit 1
+
+echo "Startup over ${RUNS} runs: jar ${JAR_MS}ms, native ${NATIVE_MS}ms"
+if ((NATIVE_MS >= JAR_MS)); then
+  echo "Native executable did not start faster than the jar" >&2
+  exit 1
+fi
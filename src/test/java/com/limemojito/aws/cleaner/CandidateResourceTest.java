@@ -0,0 +1,65 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CandidateResourceTest {
+
+    @Test
+    public void shouldCreateCandidateKnownOnlyByItsId() {
+        final CandidateResource candidate = CandidateResource.of("old-queue");
+
+        assertEquals("old-queue", candidate.id());
+        assertNull(candidate.arn());
+        assertNull(candidate.created());
+        assertNull(candidate.sizeBytes());
+        assertNull(candidate.status());
+        assertNull(candidate.tags());
+    }
+
+    @Test
+    public void shouldCarryListingMetadata() {
+        final Instant created = Instant.parse("2025-01-02T03:04:05Z");
+        final CandidateResource candidate = CandidateResource.builder()
+                                                             .id("/aws/lambda/old")
+                                                             .arn("arn:aws:logs:us-west-2:123456789012:log-group:old")
+                                                             .created(created)
+                                                             .sizeBytes(0L)
+                                                             .status("ACTIVE")
+                                                             .tags(Map.of("team", "test"))
+                                                             .build();
+
+        assertEquals("arn:aws:logs:us-west-2:123456789012:log-group:old", candidate.arn());
+        assertEquals(created, candidate.created());
+        assertEquals(Long.valueOf(0), candidate.sizeBytes());
+        assertEquals("ACTIVE", candidate.status());
+        assertEquals(Map.of("team", "test"), candidate.tags());
+    }
+
+    @Test
+    public void shouldBeNamedByItsIdInLogs() {
+        assertEquals("old-bucket", CandidateResource.builder().id("old-bucket").sizeBytes(12L).build().toString());
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CleanerDaemonTest {
+    private static final ZonedDateTime TEN_FIFTEEN = ZonedDateTime.of(2025, 1, 1, 10, 15, 0, 0, ZoneOffset.UTC);
+
+    private final AtomicReference<Throwable> runFailure = new AtomicReference<>();
+    private CleanerDaemon daemon;
+    private Thread runner;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (daemon != null) {
+            daemon.close();
+            runner.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    public void shouldScheduleOnCronExpression() {
+        final CleanerDaemon.Schedule hourly = CleanerDaemon.Schedule.cron("0 0 * * * *");
+
+        assertEquals(TEN_FIFTEEN.withHour(11).withMinute(0), hourly.next(TEN_FIFTEEN));
+    }
+
+    @Test
+    public void shouldScheduleOnInterval() {
+        final CleanerDaemon.Schedule interval = CleanerDaemon.Schedule.interval(Duration.ofMinutes(30));
+
+        assertEquals(TEN_FIFTEEN.withMinute(45), interval.next(TEN_FIFTEEN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectIntervalThatIsNotPositive() {
+        CleanerDaemon.Schedule.interval(Duration.ZERO);
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldRunOnIntervalUntilClosed() throws InterruptedException {
+        final CountDownLatch runs = new CountDownLatch(3);
+
+        start(runs::countDown, CleanerDaemon.Schedule.interval(Duration.ofMillis(50)));
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+        daemon.close();
+        runner.join();
+        assertNull(runFailure.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldSkipRunsDueWhileARunIsInProgress() throws InterruptedException {
+        final List<Long> starts = new CopyOnWriteArrayList<>();
+        final AtomicInteger inProgress = new AtomicInteger();
+        final AtomicInteger maxInProgress = new AtomicInteger();
+        final CountDownLatch runs = new CountDownLatch(3);
+
+        start(() -> {
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            starts.add(System.nanoTime());
+            if (starts.size() == 1) {
+                sleep(200);
+            }
+            inProgress.decrementAndGet();
+            runs.countDown();
+        }, CleanerDaemon.Schedule.interval(Duration.ofMillis(50)));
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxInProgress.get());
+        // the runs missed during the first are skipped rather than performed back to back.
+        final long gapMs = TimeUnit.NANOSECONDS.toMillis(starts.get(2) - starts.get(1));
+        assertTrue("Gap between runs was " + gapMs + "ms", gapMs >= 30);
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldWaitForRunInProgressWhenClosed() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean finished = new AtomicBoolean();
+
+        start(() -> {
+            started.countDown();
+            sleep(200);
+            finished.set(true);
+        }, CleanerDaemon.Schedule.interval(Duration.ofHours(1)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        daemon.close();
+
+        assertTrue(finished.get());
+        runner.join();
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldStopWhenScheduleHasNoFurtherRuns() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+
+        start(runs::incrementAndGet, previous -> null);
+
+        runner.join();
+        assertEquals(1, runs.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldStopAndThrowWhenRunFailsWithError() throws InterruptedException {
+        final Error error = new Error("Out of something");
+
+        start(() -> {
+            throw error;
+        }, CleanerDaemon.Schedule.interval(Duration.ofMillis(50)));
+
+        runner.join();
+        assertEquals(error, runFailure.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldContinueWhenRunFailsWithException() throws InterruptedException {
+        final CountDownLatch runs = new CountDownLatch(2);
+
+        start(() -> {
+            runs.countDown();
+            throw new IllegalStateException("Clean failed");
+        }, CleanerDaemon.Schedule.interval(Duration.ofMillis(50)));
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+    }
+
+    private void start(Runnable clean, CleanerDaemon.Schedule schedule) {
+        daemon = new CleanerDaemon(clean, schedule);
+        runner = new Thread(() -> {
+            try {
+                daemon.run(true);
+            } catch (Throwable e) {
+                runFailure.set(e);
+            }
+        });
+        runner.start();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner;
+
+import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import org.junit.Test;
+import org.springframework.core.annotation.Order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+
+public class CleanerSchedulerTest {
+
+    private final List<String> completed = new CopyOnWriteArrayList<>();
+    private final CleanerScheduler scheduler = new CleanerScheduler(4);
+
+    @Test
+    public void shouldRunHighestPrecedenceFirst() {
+        scheduler.execute(List.of(new First(), new Queues(), new Topics()), ResourceCleaner::clean);
+
+        assertEquals(3, completed.size());
+        assertEquals("First", completed.getFirst());
+    }
+
+    @Test
+    public void shouldRunDeclaredPredecessorsBeforeDependents() {
+        scheduler.execute(List.of(new Topics(), new Queues()), ResourceCleaner::clean);
+
+        assertEquals(List.of("Queues", "Topics"), completed);
+    }
+
+    @Test
+    public void shouldComposeAsynchronousCleanersInOrder() {
+        scheduler.executeAsync(List.of(new Topics(), new Queues(), new First()), ResourceCleaner::cleanAsync);
+
+        assertEquals(List.of("First", "Queues", "Topics"), completed);
+    }
+
+    @Test
+    public void shouldSkipDependentsOfFailedCleanerButRunOthers() {
+        final Queues failing = new Queues() {
+            @Override
+            public void clean() {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        final ResourceCleaner independent = new Stub("Independent");
+        try {
+            scheduler.execute(List.of(failing, new Topics(), independent), ResourceCleaner::clean);
+            fail("Expected failure");
+        } catch (IllegalArgumentException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals(List.of("Independent"), completed);
+    }
+
+    @Test
+    public void shouldRejectCycles() {
+        final ResourceCleaner cyclicQueues = new Queues() {
+            @Override
+            public Collection<Class<? extends ResourceCleaner>> getPredecessors() {
+                return List.of(Topics.class);
+            }
+        };
+        try {
+            scheduler.execute(List.of(cyclicQueues, new Topics()), ResourceCleaner::clean);
+            fail("Expected cycle detection");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("cycle"));
+        }
+        assertTrue(completed.isEmpty());
+    }
+
+    private class Stub implements ResourceCleaner {
+        private final String name;
+
+        Stub(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void setFilter(PhysicalDeletionFilter filter) {
+        }
+
+        @Override
+        public void clean() {
+            completed.add(name);
+        }
+
+        @Override
+        public void setCommit(boolean commit) {
+        }
+    }
+
+    @Order(HIGHEST_PRECEDENCE)
+    private class First extends Stub {
+        First() {
+            super("First");
+        }
+    }
+
+    private class Queues extends Stub {
+        Queues() {
+            super("Queues");
+        }
+    }
+
+    private class Topics extends Stub {
+        Topics() {
+            super("Topics");
+        }
+
+        @Override
+        public Collection<Class<? extends ResourceCleaner>> getPredecessors() {
+            return List.of(Queues.class);
+        }
+    }
+}
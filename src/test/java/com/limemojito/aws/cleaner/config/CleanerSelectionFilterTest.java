@@ -0,0 +1,101 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.config;
+
+import com.limemojito.aws.cleaner.filter.NameFilter;
+import com.limemojito.aws.cleaner.resource.LogGroupCleaner;
+import com.limemojito.aws.cleaner.resource.S3ResourceCleaner;
+import com.limemojito.aws.cleaner.resource.SQSResourceCleaner;
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CleanerSelectionFilterTest {
+    private final MetadataReaderFactory readers = new SimpleMetadataReaderFactory();
+
+    @Test
+    public void shouldOnlySelectIncludedCleaners() throws IOException {
+        final CleanerSelectionFilter filter = filter(" S3 , loggroup", "");
+
+        assertFalse(excludes(filter, S3ResourceCleaner.class));
+        assertFalse(excludes(filter, LogGroupCleaner.class));
+        assertTrue(excludes(filter, SQSResourceCleaner.class));
+        assertFalse(excludes(filter, NameFilter.class));
+    }
+
+    @Test
+    public void shouldNotSelectExcludedCleaners() throws IOException {
+        final CleanerSelectionFilter filter = filter("", "sqs");
+
+        assertFalse(excludes(filter, S3ResourceCleaner.class));
+        assertTrue(excludes(filter, SQSResourceCleaner.class));
+    }
+
+    @Test
+    public void shouldSelectNoCleanersWhenNoneIncluded() throws IOException {
+        final CleanerSelectionFilter filter = filter("none", "");
+
+        assertTrue(excludes(filter, S3ResourceCleaner.class));
+        assertTrue(excludes(filter, LogGroupCleaner.class));
+    }
+
+    @Test
+    public void shouldFailOnUnknownIncludedCleaner() {
+        try {
+            filter("s3,loggroups", "");
+            fail("Expected unknown cleaner");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("cleaner.include has unknown cleaners [loggroups]"));
+            assertTrue(e.getMessage(), e.getMessage().contains("loggroup, "));
+        }
+    }
+
+    @Test
+    public void shouldFailOnUnknownExcludedCleaner() {
+        try {
+            filter("", "S3Bucket");
+            fail("Expected unknown cleaner");
+        } catch (IllegalArgumentException e) {
+            assertEquals("cleaner.exclude has unknown cleaners [s3bucket]", e.getMessage().split(", valid")[0]);
+        }
+    }
+
+    private static CleanerSelectionFilter filter(String include, String exclude) {
+        final StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources()
+                   .addFirst(new MapPropertySource("test", Map.of("cleaner.include", include,
+                                                                  "cleaner.exclude", exclude)));
+        final CleanerSelectionFilter filter = new CleanerSelectionFilter();
+        filter.setEnvironment(environment);
+        return filter;
+    }
+
+    private boolean excludes(CleanerSelectionFilter filter, Class<?> type) throws IOException {
+        return filter.match(readers.getMetadataReader(type.getName()), readers);
+    }
+}
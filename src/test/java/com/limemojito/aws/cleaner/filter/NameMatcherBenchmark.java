@@ -0,0 +1,84 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/**
+ * Compares {@link NameMatcher} with the previous cleaner.skip.names check of a String.contains per name.
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.limemojito.aws.cleaner.filter.NameMatcherBenchmark
+ * </pre>
+ */
+public final class NameMatcherBenchmark {
+    private static final int FRAGMENTS = 300;
+    private static final int IDS = 50_000;
+    private static final int ROUNDS = 10;
+
+    private NameMatcherBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Random random = new Random(42);
+        final List<String> fragments = new ArrayList<>();
+        for (int i = 0; i < FRAGMENTS; i++) {
+            fragments.add(word(random, 6 + random.nextInt(10)));
+        }
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < IDS; i++) {
+            final String id = "/aws/lambda/" + word(random, 20 + random.nextInt(40));
+            ids.add(i % 100 == 0 ? id + fragments.get(random.nextInt(FRAGMENTS)) : id);
+        }
+        final NameMatcher matcher = new NameMatcher(fragments);
+        for (String id : ids) {
+            if (matcher.matches(id) != fragments.stream().anyMatch(id::contains)) {
+                throw new IllegalStateException(format("Results differ for %s", id));
+            }
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            final long containsNanos = time(() -> ids.stream()
+                                                      .filter(id -> fragments.stream().noneMatch(id::contains))
+                                                      .count());
+            final long matcherNanos = time(() -> ids.stream().filter(id -> !matcher.matches(id)).count());
+            System.out.printf("round %d: contains %d ns/id, matcher %d ns/id%n",
+                              round,
+                              containsNanos / IDS,
+                              matcherNanos / IDS);
+        }
+    }
+
+    private static long time(Runnable work) {
+        final long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+
+    private static String word(Random random, int length) {
+        final StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NameMatcherTest {
+
+    @Test
+    public void shouldMatchFragmentsAnywhereInId() {
+        final NameMatcher matcher = new NameMatcher(List.of("prod", "keep-me", "she", "hers"));
+
+        assertEquals(Optional.of("prod"), matcher.firstMatch("arn:aws:sns:us-west-2:123:prod-topic"));
+        assertEquals(Optional.of("keep-me"), matcher.firstMatch("bucket-keep-me"));
+        assertEquals(Optional.of("she"), matcher.firstMatch("ushers"));
+        assertFalse(matcher.matches("dev-topic"));
+    }
+
+    @Test
+    public void shouldMatchOverlappingFragmentsThroughFailureLinks() {
+        final NameMatcher matcher = new NameMatcher(List.of("abcd", "bce"));
+
+        assertEquals(Optional.of("bce"), matcher.firstMatch("xabcex"));
+    }
+
+    @Test
+    public void shouldMatchGlobAgainstWholeId() {
+        final NameMatcher matcher = new NameMatcher(List.of("glob:/aws/lambda/*-prod"));
+
+        assertEquals(Optional.of("glob:/aws/lambda/*-prod"), matcher.firstMatch("/aws/lambda/api-prod"));
+        assertFalse(matcher.matches("/aws/lambda/api-prod-old"));
+        assertFalse(matcher.matches("x/aws/lambda/api-prod"));
+    }
+
+    @Test
+    public void shouldMatchRegex() {
+        final NameMatcher matcher = new NameMatcher(List.of("regex:^table-[0-9]+$"));
+
+        assertTrue(matcher.matches("table-42"));
+        assertFalse(matcher.matches("table-x"));
+    }
+
+    @Test
+    public void shouldMatchNothingWhenEmpty() {
+        final NameMatcher matcher = new NameMatcher(List.of());
+
+        assertTrue(matcher.isEmpty());
+        assertFalse(matcher.matches("anything"));
+    }
+}
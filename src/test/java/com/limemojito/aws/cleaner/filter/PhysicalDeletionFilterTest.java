@@ -0,0 +1,64 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CandidateResource;
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.awssdk.regions.Region.US_WEST_2;
+
+public class PhysicalDeletionFilterTest {
+
+    private final DeletionFilter remote = new DeletionFilter() {
+        @Override
+        public boolean shouldDelete(CandidateResource candidate) {
+            return !candidate.id().startsWith("stack-");
+        }
+    };
+    private final PhysicalDeletionFilter chain = new PhysicalDeletionFilter(List.of(remote,
+                                                                                    new NameFilter("keep")));
+
+    @Test
+    public void shouldRunCheapestFilterFirstAndStopWhenKept() {
+        assertFalse(chain.shouldDelete("keep-table"));
+        assertFalse(chain.shouldDelete("stack-table"));
+        assertTrue(chain.shouldDelete("other-table"));
+
+        final List<FilterStatistics> statistics = chain.getStatistics();
+        assertEquals("NameFilter", statistics.get(0).filter());
+        assertEquals(3, statistics.get(0).evaluated());
+        assertEquals(1, statistics.get(0).kept());
+        assertEquals(2, statistics.get(1).evaluated());
+        assertEquals(1, statistics.get(1).kept());
+        assertEquals(1, statistics.get(1).passed());
+    }
+
+    @Test
+    public void shouldResetStatisticsForEachRun() {
+        chain.shouldDelete("other-table");
+        chain.onCleanStarted(new CleanStartedEvent(US_WEST_2, false));
+
+        assertEquals(0, chain.getStatistics().get(0).evaluated());
+    }
+}
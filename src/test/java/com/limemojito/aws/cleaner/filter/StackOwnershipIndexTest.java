@@ -0,0 +1,149 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
+import software.amazon.awssdk.services.cloudformation.model.ListStackResourcesRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListStackResourcesResponse;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksResponse;
+import software.amazon.awssdk.services.cloudformation.model.StackResourceSummary;
+import software.amazon.awssdk.services.cloudformation.model.StackStatus;
+import software.amazon.awssdk.services.cloudformation.model.StackSummary;
+import software.amazon.awssdk.services.cloudformation.paginators.ListStackResourcesIterable;
+import software.amazon.awssdk.services.cloudformation.paginators.ListStacksIterable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static software.amazon.awssdk.regions.Region.US_WEST_2;
+
+public class StackOwnershipIndexTest {
+    private static final String QUEUE_URL = "https://sqs.us-west-2.amazonaws.com/123456789012/owned";
+    private static final String TOPIC_ARN = "arn:aws:sns:us-west-2:123456789012:topic";
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private CloudFormationClient cloudFormation;
+
+    private StackOwnershipIndex index;
+
+    @Before
+    public void setUp() {
+        final ListStacksRequest stacksRequest = ListStacksRequest.builder().build();
+        when(cloudFormation.listStacksPaginator(any(ListStacksRequest.class)))
+                .thenReturn(new ListStacksIterable(cloudFormation, stacksRequest));
+        when(cloudFormation.listStacks(any(ListStacksRequest.class)))
+                .thenReturn(ListStacksResponse.builder()
+                                              .stackSummaries(stack("live", StackStatus.CREATE_COMPLETE),
+                                                              stack("gone", StackStatus.DELETE_COMPLETE))
+                                              .build());
+        when(cloudFormation.listStackResourcesPaginator(any(ListStackResourcesRequest.class)))
+                .thenAnswer(invocation -> new ListStackResourcesIterable(cloudFormation, invocation.getArgument(0)));
+        when(cloudFormation.listStackResources(any(ListStackResourcesRequest.class)))
+                .thenReturn(ListStackResourcesResponse.builder()
+                                                      .stackResourceSummaries(resource(QUEUE_URL),
+                                                                              resource(TOPIC_ARN),
+                                                                              resource("owned-table"))
+                                                      .build());
+        index = new StackOwnershipIndex(cloudFormation, null);
+    }
+
+    @Test
+    public void shouldMatchResourcesOfLiveStacksOnly() {
+        assertTrue(index.isOwned("owned-table"));
+        assertTrue(index.isOwned(TOPIC_ARN));
+        assertFalse(index.isOwned("other-table"));
+
+        verify(cloudFormation, times(1)).listStackResources(any(ListStackResourcesRequest.class));
+    }
+
+    @Test
+    public void shouldMatchQueueByUrlOrArn() {
+        assertTrue(index.isOwned(QUEUE_URL));
+        assertTrue(index.isOwned("arn:aws:sqs:us-west-2:123456789012:owned"));
+        assertFalse(index.isOwned("https://sqs.us-west-2.amazonaws.com/123456789012/other"));
+    }
+
+    @Test
+    public void shouldNormaliseArnsAndUrls() {
+        assertEquals("arn:logs:us-west-2:123456789012:log-group:app",
+                     ResourceIds.normalise("arn:aws:logs:us-west-2:123456789012:log-group:app:*"));
+        assertEquals("arn:sqs:us-east-1:123456789012:legacy",
+                     ResourceIds.normalise("https://queue.amazonaws.com/123456789012/legacy"));
+        assertEquals("bucket-name", ResourceIds.normalise("bucket-name"));
+    }
+
+    @Test
+    public void shouldRebuildIndexForEachRun() {
+        index.isOwned("owned-table");
+        index.onCleanStarted(new CleanStartedEvent(US_WEST_2, false));
+        index.isOwned("owned-table");
+
+        verify(cloudFormation, times(2)).listStacks(any(ListStacksRequest.class));
+    }
+
+    @Test
+    public void shouldOnlyListChangedStacksWhenCached() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("stacks.tsv");
+        new StackOwnershipIndex(cloudFormation, new StackResourceCache(file)).isOwned("owned-table");
+
+        assertTrue(new StackOwnershipIndex(cloudFormation, new StackResourceCache(file)).isOwned("owned-table"));
+        verify(cloudFormation, times(1)).listStackResources(any(ListStackResourcesRequest.class));
+        assertTrue(Files.readString(file).contains("id-live"));
+        assertFalse(Files.readString(file).contains("id-gone"));
+    }
+
+    @Test
+    public void shouldRebuildFromCorruptCache() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("stacks.tsv");
+        Files.writeString(file, "aws-cleaner-stack-cache\t1\nstack\tid-live\tCREATE_COMPLETE@null\t9\nowned");
+
+        assertTrue(new StackOwnershipIndex(cloudFormation, new StackResourceCache(file)).isOwned("owned-table"));
+        verify(cloudFormation, times(1)).listStackResources(any(ListStackResourcesRequest.class));
+    }
+
+    private static StackSummary stack(String name, StackStatus status) {
+        return StackSummary.builder().stackName(name).stackId("id-" + name).stackStatus(status).build();
+    }
+
+    private static StackResourceSummary resource(String physicalId) {
+        return StackResourceSummary.builder().physicalResourceId(physicalId).build();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.filter;
+
+import com.limemojito.aws.cleaner.CleanStartedEvent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.awssdk.regions.Region.US_WEST_2;
+
+/**
+ * Runs the filter against a local stand-in for the Resource Groups Tagging API that serves two pages of tags.
+ */
+public class TagFilterTest {
+    private static final String PAGE_ONE = """
+            {"PaginationToken": "page-2", "ResourceTagMappingList": [
+              {"ResourceARN": "arn:aws:dynamodb:us-west-2:123456789012:table/kept",
+               "Tags": [{"Key": "keep", "Value": "true"}]},
+              {"ResourceARN": "arn:aws:dynamodb:us-west-2:123456789012:table/test-table",
+               "Tags": [{"Key": "env", "Value": "test"}]},
+              {"ResourceARN": "arn:aws:s3:::shared", "Tags": [{"Key": "keep", "Value": "true"}]},
+              {"ResourceARN": "arn:aws:dynamodb:us-west-2:123456789012:table/shared", "Tags": []}
+            ]}""";
+    private static final String PAGE_TWO = """
+            {"PaginationToken": "", "ResourceTagMappingList": [
+              {"ResourceARN": "arn:aws:sqs:us-west-2:123456789012:kept-queue",
+               "Tags": [{"Key": "keep", "Value": "true"}]},
+              {"ResourceARN": "arn:aws:logs:us-west-2:123456789012:log-group:/aws/lambda/app",
+               "Tags": [{"Key": "keep", "Value": "false"}]}
+            ]}""";
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private ResourceGroupsTaggingApiClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::getResources);
+        server.start();
+        client = ResourceGroupsTaggingApiClient.builder()
+                                               .endpointOverride(URI.create("http://localhost:"
+                                                                                    + server.getAddress().getPort()))
+                                               .region(US_WEST_2)
+                                               .credentialsProvider(StaticCredentialsProvider.create(
+                                                       AwsBasicCredentials.create("test", "test")))
+                                               .httpClientBuilder(ApacheHttpClient.builder())
+                                               .build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldKeepResourcesWithExcludedTagsFromOneScan() {
+        final TagFilter filter = new TagFilter(() -> client, "", "keep=true");
+
+        assertFalse(filter.shouldDelete("kept"));
+        assertFalse(filter.shouldDelete("https://sqs.us-west-2.amazonaws.com/123456789012/kept-queue"));
+        assertTrue(filter.shouldDelete("/aws/lambda/app"));
+        assertTrue(filter.shouldDelete("untagged"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldOnlyDeleteIncludedTags() {
+        final TagFilter filter = new TagFilter(() -> client, "env=test", "");
+
+        assertTrue(filter.shouldDelete("test-table"));
+        assertFalse(filter.shouldDelete("kept"));
+        assertFalse(filter.shouldDelete("untagged"));
+    }
+
+    @Test
+    public void shouldKeepNamesTaggedOnSeveralResources() {
+        final TagFilter filter = new TagFilter(() -> client, "", "keep");
+
+        assertFalse(filter.shouldDelete("shared"));
+    }
+
+    @Test
+    public void shouldReloadTagsForEachRun() {
+        final TagFilter filter = new TagFilter(() -> client, "", "keep");
+        filter.shouldDelete("kept");
+        filter.onCleanStarted(new CleanStartedEvent(US_WEST_2, false));
+        filter.shouldDelete("kept");
+
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void shouldNotCallAwsWithoutRules() {
+        final TagFilter filter = new TagFilter(() -> {
+            throw new AssertionError("client requested");
+        }, "", "");
+
+        assertTrue(filter.shouldDelete("anything"));
+    }
+
+    private void getResources(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        final String request = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+        final byte[] response = (request.contains("page-2") ? PAGE_TWO : PAGE_ONE).getBytes(UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
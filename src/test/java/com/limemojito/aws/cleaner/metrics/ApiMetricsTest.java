@@ -0,0 +1,86 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApiMetricsTest {
+    private static final ApiMetrics.ApiKey DELETE_QUEUE = new ApiMetrics.ApiKey("us-west-2",
+                                                                                "Sqs",
+                                                                                "DeleteQueue",
+                                                                                "SQSResourceCleaner");
+
+    private final ApiMetrics metrics = new ApiMetrics();
+
+    @Test
+    public void shouldWritePrometheusCountersAndHistogram() {
+        metrics.record(DELETE_QUEUE, Duration.ofMillis(20).toNanos(), 1, 0, false);
+        metrics.record(DELETE_QUEUE, Duration.ofMillis(700).toNanos(), 3, 2, true);
+
+        final String text = metrics.toString();
+
+        final String labels = "{region=\"us-west-2\",service=\"Sqs\",operation=\"DeleteQueue\","
+                              + "cleaner=\"SQSResourceCleaner\"";
+        assertTrue(text, text.contains("aws_cleaner_api_calls_total" + labels + "} 2\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_failures_total" + labels + "} 1\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_retries_total" + labels + "} 2\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_throttles_total" + labels + "} 2\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_call_duration_seconds_bucket" + labels + ",le=\"0.025\"} 1\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_call_duration_seconds_bucket" + labels + ",le=\"1\"} 2\n"));
+        assertTrue(text, text.contains("aws_cleaner_api_call_duration_seconds_sum" + labels + "} 0.720000\n"));
+    }
+
+    @Test
+    public void shouldWriteJson() {
+        final ApiMetrics json = new ApiMetrics(null, ApiMetrics.Format.JSON);
+        json.record(DELETE_QUEUE, Duration.ofMillis(5).toNanos(), 1, 0, false);
+
+        final String text = json.toString();
+
+        assertTrue(text, text.startsWith("{\"apis\":[{\"region\":\"us-west-2\",\"service\":\"Sqs\","
+                                         + "\"operation\":\"DeleteQueue\",\"cleaner\":\"SQSResourceCleaner\","
+                                         + "\"calls\":1,\"failures\":0,\"retries\":0,\"throttles\":0,"
+                                         + "\"seconds\":0.005000,\"buckets\":{\"0.01\":1,"));
+        assertTrue(text, text.endsWith("],\"backoff\":[]}\n"));
+    }
+
+    @Test
+    public void shouldAttributeCallsAndBackoffToTrackedCleaner() {
+        assertEquals("-", CleanerReport.current().cleaner());
+        final CleanerReport report = new CleanerReport("us-west-2", "S3ResourceCleaner", metrics);
+        final String onVirtualThread = report.track(() -> {
+            CleanerReport.current().backedOff(Duration.ofSeconds(2));
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                return CompletableFuture.supplyAsync(() -> CleanerReport.current().cleaner(), executor).join();
+            }
+        });
+
+        assertEquals("S3ResourceCleaner", onVirtualThread);
+        assertEquals("-", CleanerReport.current().cleaner());
+        assertTrue(metrics.toString().contains("aws_cleaner_throttle_backoff_seconds_total{region=\"us-west-2\","
+                                               + "cleaner=\"S3ResourceCleaner\"} 2.000000\n"));
+    }
+}
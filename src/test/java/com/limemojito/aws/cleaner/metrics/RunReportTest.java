@@ -0,0 +1,63 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import com.limemojito.aws.cleaner.CleanResult;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RunReportTest {
+
+    @Test
+    public void shouldReportEachCleanerOutcome() {
+        final CleanerReport queues = new CleanerReport("us-west-2", "SQSResourceCleaner", null);
+        queues.listed(4);
+        queues.kept("NameDeletionFilter");
+        queues.kept("NameDeletionFilter");
+        queues.deleted();
+        queues.failed();
+        queues.waited(Duration.ofMillis(250));
+        queues.backedOff(Duration.ofSeconds(1));
+        queues.finished(Duration.ofSeconds(3), null);
+        final CleanerReport topics = new CleanerReport("us-west-2", "SNSResourceCleaner", null);
+        final Instant started = Instant.parse("2025-01-01T00:00:00Z");
+
+        final String json = RunReport.toJson(started,
+                                             started.plusSeconds(5),
+                                             false,
+                                             List.of(new CleanResult("us-west-2",
+                                                                     Duration.ofSeconds(4),
+                                                                     new IllegalStateException("boom"),
+                                                                     List.of(queues, topics))));
+
+        assertEquals("{\"started\":\"2025-01-01T00:00:00Z\",\"elapsedMillis\":5000,\"commit\":false,\"scopes\":["
+                     + "{\"scope\":\"us-west-2\",\"elapsedMillis\":4000,\"failure\":\"boom\",\"cleaners\":["
+                     + "{\"region\":\"us-west-2\",\"cleaner\":\"SQSResourceCleaner\",\"status\":\"completed\","
+                     + "\"elapsedMillis\":3000,\"listed\":4,\"kept\":{\"NameDeletionFilter\":2},\"deleted\":1,"
+                     + "\"failed\":1,\"waitMillis\":250,\"backoffMillis\":1000,\"failure\":null},"
+                     + "{\"region\":\"us-west-2\",\"cleaner\":\"SNSResourceCleaner\",\"status\":\"skipped\","
+                     + "\"elapsedMillis\":0,\"listed\":0,\"kept\":{},\"deleted\":0,\"failed\":0,\"waitMillis\":0,"
+                     + "\"backoffMillis\":0,\"failure\":null}]}]}\n",
+                     json);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.metrics;
+
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TracerTest {
+
+    @Test
+    public void shouldNotRecordWhenDisabled() {
+        final Span run = new Tracer().startRun(true);
+
+        assertSame(Span.none(), run);
+        assertFalse(run.child("cleaner").isRecording());
+    }
+
+    @Test
+    public void shouldNestSpansOfCleanerAndResource() {
+        final Tracer tracer = new Tracer(Path.of("trace.json"));
+        final Span run = tracer.startRun(false);
+        final CleanerReport report = new CleanerReport("us-west-2", "SQSResourceCleaner", null);
+        final Span cleaner = tracer.run().child(report.cleaner());
+        report.started(cleaner);
+        final Span resource = report.span().child("resource").attribute("aws.resource.id", "queue-1");
+
+        final Span call = report.track(() -> resource.within(() -> {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                return CompletableFuture.supplyAsync(() -> Span.current().child("SQS.DeleteQueue",
+                                                                                  Span.Kind.CLIENT), executor)
+                                        .join();
+            }
+        }));
+        assertSame(cleaner, report.track(Span::current));
+        call.end(new IllegalStateException("denied"));
+        resource.end();
+        cleaner.end();
+        run.end();
+
+        final String json = Tracer.toJson(List.of(call, resource, cleaner, run));
+        assertTrue(json, json.startsWith("{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\","
+                                         + "\"value\":{\"stringValue\":\"aws-cleaner\"}}]},\"scopeSpans\":[{\"scope\":"
+                                         + "{\"name\":\"com.limemojito.aws.cleaner\"},\"spans\":[{\"traceId\":"));
+        assertEquals(json, 4, json.split("\"traceId\":").length - 1);
+        final List<String> spanIds = values(json, "spanId");
+        assertEquals(List.of(spanIds.get(1), spanIds.get(2), spanIds.get(3)), values(json, "parentSpanId"));
+        assertTrue(json, json.contains("\"name\":\"SQS.DeleteQueue\",\"kind\":3,"));
+        assertTrue(json, json.contains("\"status\":{\"code\":2,\"message\":\"denied\"}"));
+        assertTrue(json, json.contains("{\"key\":\"aws.resource.id\",\"value\":{\"stringValue\":\"queue-1\"}}"));
+        assertTrue(json, json.contains("{\"key\":\"cleaner.commit\",\"value\":{\"boolValue\":false}}"));
+    }
+
+    private static List<String> values(String json, String key) {
+        return Pattern.compile("\"" + key + "\":\"([0-9a-f]+)\"")
+                      .matcher(json)
+                      .results()
+                      .map(match -> match.group(1))
+                      .toList();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveRateLimiterTest {
+    private static final String API = "Sqs.DeleteQueue";
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(true, 100, now::get);
+
+    @Test
+    public void shouldNotLimitUntilThrottled() {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(0, limiter.reserve(API));
+        }
+        assertEquals(Double.POSITIVE_INFINITY, limiter.getRate(API), 0);
+        assertEquals(Double.POSITIVE_INFINITY, limiter.getRate("Sns.DeleteTopic"), 0);
+    }
+
+    @Test
+    public void shouldHalveObservedRateWhenThrottledAndQueueCallers() {
+        throttleAtTwentyPerSecond();
+
+        assertEquals(10.0, limiter.getRate(API), 0.001);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve(API), 1_000);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve(API), 1_000);
+        now.addAndGet(ONE_SECOND);
+        assertEquals(0, limiter.reserve(API));
+    }
+
+    @Test
+    public void shouldCutOncePerCoolDownAndRecoverGradually() {
+        throttleAtTwentyPerSecond();
+        limiter.throttled(API);
+        assertEquals(10.0, limiter.getRate(API), 0.001);
+
+        now.addAndGet(2 * ONE_SECOND);
+        limiter.throttled(API);
+        assertEquals(5.0, limiter.getRate(API), 0.001);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.succeeded(API);
+        }
+        final double rate = limiter.getRate(API);
+        assertTrue("Rate was " + rate, rate > 5.5 && rate < 6.0);
+    }
+
+    @Test
+    public void shouldDelayAsynchronousCallsWithoutBlocking() {
+        assertTrue(limiter.whenAllowed(API).isDone());
+        throttleAtTwentyPerSecond();
+
+        final CompletableFuture<Void> allowed = limiter.whenAllowed(API);
+
+        assertFalse(allowed.isDone());
+        allowed.join();
+    }
+
+    private void throttleAtTwentyPerSecond() {
+        for (int i = 0; i < 19; i++) {
+            limiter.reserve(API);
+        }
+        now.addAndGet(ONE_SECOND);
+        limiter.reserve(API);
+        limiter.throttled(API);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+    private static final String SERVICE = "ElasticBeanstalk";
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(50, 4, Duration.ofMinutes(5), now::get);
+
+    @Test
+    public void shouldOpenAtFailureRateAndRejectCalls() {
+        breaker.record(SERVICE, null);
+        breaker.record(SERVICE, SdkClientException.create("Unable to execute HTTP request"));
+        breaker.record(SERVICE, SdkServiceException.builder().statusCode(404).message("Not found").build());
+        assertFalse(breaker.isOpen(SERVICE));
+
+        breaker.record(SERVICE, SdkServiceException.builder().statusCode(503).message("Unavailable").build());
+
+        assertTrue(breaker.isOpen(SERVICE));
+        try {
+            breaker.acquire(SERVICE);
+            fail("Expected open circuit");
+        } catch (CircuitOpenException e) {
+            assertEquals("ElasticBeanstalk circuit open after 2 of the last 4 calls failed: Unavailable",
+                         e.getMessage());
+            assertTrue(CircuitBreaker.isOpenCircuit(new IllegalStateException(e)));
+        }
+        breaker.acquire("Sqs");
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulTrialOnceCooledDown() {
+        openCircuit();
+
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        breaker.acquire(SERVICE);
+        breaker.record(SERVICE, null);
+
+        assertFalse(breaker.isOpen(SERVICE));
+        breaker.acquire(SERVICE);
+    }
+
+    @Test
+    public void shouldStayOpenWhenTrialFails() {
+        openCircuit();
+
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        breaker.acquire(SERVICE);
+        breaker.record(SERVICE, SdkClientException.create("Unable to execute HTTP request"));
+
+        assertTrue(breaker.isOpen(SERVICE));
+        try {
+            breaker.acquire(SERVICE);
+            fail("Expected open circuit");
+        } catch (CircuitOpenException e) {
+            assertTrue(e.getMessage().contains("Unable to execute HTTP request"));
+        }
+    }
+
+    @Test
+    public void shouldNotOpenWhenAccessIsDenied() {
+        for (int i = 0; i < 8; i++) {
+            breaker.record(SERVICE, SdkServiceException.builder().statusCode(403).message("Access Denied").build());
+            breaker.record(SERVICE, SdkServiceException.builder().statusCode(401).message("Unauthorized").build());
+        }
+
+        assertFalse(breaker.isOpen(SERVICE));
+        breaker.acquire(SERVICE);
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            breaker.record(SERVICE, SdkServiceException.builder().statusCode(500).message("Internal error").build());
+        }
+        assertTrue(breaker.isOpen(SERVICE));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
+import software.amazon.awssdk.services.cloudformation.model.DeleteStackRequest;
+import software.amazon.awssdk.services.cloudformation.model.Export;
+import software.amazon.awssdk.services.cloudformation.model.ListExportsRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListExportsResponse;
+import software.amazon.awssdk.services.cloudformation.model.ListImportsRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListImportsResponse;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksResponse;
+import software.amazon.awssdk.services.cloudformation.model.StackStatus;
+import software.amazon.awssdk.services.cloudformation.model.StackSummary;
+import software.amazon.awssdk.services.cloudformation.paginators.ListExportsIterable;
+import software.amazon.awssdk.services.cloudformation.paginators.ListImportsIterable;
+import software.amazon.awssdk.services.cloudformation.paginators.ListStacksIterable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.CREATE_COMPLETE;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_COMPLETE;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_FAILED;
+import static software.amazon.awssdk.services.cloudformation.model.StackStatus.DELETE_IN_PROGRESS;
+
+public class CloudFormationResourceCleanerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private CloudFormationClient cloudFormation;
+
+    @Captor
+    private ArgumentCaptor<Consumer<DeleteStackRequest.Builder>> deletes;
+
+    private final CleanerReport report = new CleanerReport("us-west-2", "CloudFormationResourceCleaner", null);
+    private final List<StackSummary> listed = new ArrayList<>();
+    private final List<Export> exports = new ArrayList<>();
+    private final Map<String, List<String>> importers = new HashMap<>();
+    // the statuses returned by each poll for deleted stacks, the last repeating.
+    private final List<List<StackSummary>> polls = new ArrayList<>();
+    private int polled;
+    private CloudFormationResourceCleaner cleaner;
+
+    @Before
+    public void setUp() {
+        when(cloudFormation.listStacksPaginator())
+                .thenAnswer(invocation -> new ListStacksIterable(cloudFormation, ListStacksRequest.builder().build()));
+        when(cloudFormation.listStacksPaginator(ArgumentMatchers.<Consumer<ListStacksRequest.Builder>>any()))
+                .thenAnswer(invocation -> {
+                    final ListStacksRequest.Builder request = ListStacksRequest.builder();
+                    invocation.<Consumer<ListStacksRequest.Builder>>getArgument(0).accept(request);
+                    return new ListStacksIterable(cloudFormation, request.build());
+                });
+        when(cloudFormation.listStacks(any(ListStacksRequest.class))).thenAnswer(invocation -> {
+            final ListStacksRequest request = invocation.getArgument(0);
+            return ListStacksResponse.builder()
+                                     .stackSummaries(request.hasStackStatusFilters() ? nextPoll() : listed)
+                                     .build();
+        });
+        when(cloudFormation.listExportsPaginator())
+                .thenAnswer(invocation -> new ListExportsIterable(cloudFormation, ListExportsRequest.builder().build()));
+        when(cloudFormation.listExports(any(ListExportsRequest.class)))
+                .thenAnswer(invocation -> ListExportsResponse.builder().exports(exports).build());
+        when(cloudFormation.listImportsPaginator(ArgumentMatchers.<Consumer<ListImportsRequest.Builder>>any()))
+                .thenAnswer(invocation -> {
+                    final ListImportsRequest.Builder request = ListImportsRequest.builder();
+                    invocation.<Consumer<ListImportsRequest.Builder>>getArgument(0).accept(request);
+                    return new ListImportsIterable(cloudFormation, request.build());
+                });
+        when(cloudFormation.listImports(any(ListImportsRequest.class))).thenAnswer(invocation -> {
+            final ListImportsRequest request = invocation.getArgument(0);
+            return ListImportsResponse.builder()
+                                      .imports(importers.getOrDefault(request.exportName(), List.of()))
+                                      .build();
+        });
+        cleaner = new CloudFormationResourceCleaner(cloudFormation, "", 1, "PT0.1S", "PT0.2S", 10);
+        cleaner.setReport(report);
+        cleaner.setCommit(true);
+    }
+
+    @Test
+    public void shouldWaitOnStacksByIdRetryingFailedDeletesAndGiveUpAtTimeout() {
+        // a stack of the same name deleted earlier must not release the stack being deleted now.
+        listed.addAll(List.of(stack("reused", "reused-2", CREATE_COMPLETE),
+                              stack("retry", "retry-1", CREATE_COMPLETE),
+                              stack("network", "network-1", CREATE_COMPLETE),
+                              stack("database", "database-1", CREATE_COMPLETE)));
+        exports.add(export("vpc", "network-1"));
+        exports.add(export("db", "database-1"));
+        importers.put("vpc", List.of("reused"));
+        importers.put("db", List.of("retry"));
+        polls.add(List.of(stack("reused", "reused-1", DELETE_COMPLETE),
+                          stack("retry", "retry-1", DELETE_FAILED)));
+        polls.add(List.of(stack("reused", "reused-1", DELETE_COMPLETE),
+                          stack("reused", "reused-2", DELETE_IN_PROGRESS),
+                          stack("retry", "retry-1", DELETE_COMPLETE),
+                          stack("database", "database-1", DELETE_COMPLETE)));
+
+        cleaner.clean();
+
+        // network is kept as reused, which imports its export, was still deleting at the timeout.
+        assertEquals(List.of("reused", "retry", "retry", "database"), deletedStacks());
+        assertEquals("us-west-2 CloudFormationResourceCleaner: 4 listed, 0 kept, 2 deleted, 2 failed in 0ms",
+                     report.toString());
+    }
+
+    @Test
+    public void shouldTreatNestedStackExportsAndImportsAsTheirRootStacks() {
+        listed.addAll(List.of(stack("app", "app-1", CREATE_COMPLETE),
+                              stack("consumer", "consumer-1", CREATE_COMPLETE),
+                              nested("app-Nested", "nested-1", "app-1"),
+                              nested("app-Inner", "inner-1", "app-1")));
+        // imported by another root, and by a nested stack of the same root which does not order the delete.
+        exports.add(export("queue", "nested-1"));
+        importers.put("queue", List.of("consumer", "app-Inner"));
+        polls.add(List.of(stack("consumer", "consumer-1", DELETE_COMPLETE),
+                          stack("app", "app-1", DELETE_COMPLETE)));
+
+        cleaner.clean();
+
+        assertEquals(List.of("consumer", "app"), deletedStacks());
+        assertEquals("us-west-2 CloudFormationResourceCleaner: 2 listed, 0 kept, 2 deleted, 0 failed in 0ms",
+                     report.toString());
+    }
+
+    private synchronized List<StackSummary> nextPoll() {
+        return polls.get(Math.min(polled++, polls.size() - 1));
+    }
+
+    private List<String> deletedStacks() {
+        verify(cloudFormation, atLeastOnce()).deleteStack(deletes.capture());
+        return deletes.getAllValues().stream().map(delete -> {
+            final DeleteStackRequest.Builder request = DeleteStackRequest.builder();
+            delete.accept(request);
+            return request.build().stackName();
+        }).toList();
+    }
+
+    private static StackSummary stack(String name, String id, StackStatus status) {
+        return StackSummary.builder().stackName(name).stackId(id).stackStatus(status).build();
+    }
+
+    private static StackSummary nested(String name, String id, String rootId) {
+        return stack(name, id, CREATE_COMPLETE).toBuilder().rootId(rootId).parentId(rootId).build();
+    }
+
+    private static Export export(String name, String stackId) {
+        return Export.builder().name(name).exportingStackId(stackId).build();
+    }
+}
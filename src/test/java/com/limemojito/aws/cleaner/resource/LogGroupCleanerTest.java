@@ -0,0 +1,110 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.beans.factory.ObjectProvider;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsAsyncClient;
+import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DeleteLogGroupRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.DescribeLogGroupsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.LogGroup;
+import software.amazon.awssdk.services.cloudwatchlogs.paginators.DescribeLogGroupsIterable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogGroupCleanerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private CloudWatchLogsClient client;
+
+    @Mock
+    private ObjectProvider<CloudWatchLogsAsyncClient> asyncClientProvider;
+
+    @Captor
+    private ArgumentCaptor<Consumer<DeleteLogGroupRequest.Builder>> deletes;
+
+    private final CleanerReport report = new CleanerReport("us-west-2", "LogGroupCleaner", null);
+    private LogGroupCleaner cleaner;
+
+    @Before
+    public void setUp() {
+        when(client.describeLogGroupsPaginator())
+                .thenAnswer(invocation -> new DescribeLogGroupsIterable(client,
+                                                                        DescribeLogGroupsRequest.builder().build()));
+        when(client.describeLogGroups(any(DescribeLogGroupsRequest.class)))
+                .thenReturn(DescribeLogGroupsResponse.builder()
+                                                     .logGroups(group("/aws/lambda/empty", 0L),
+                                                                group("/aws/lambda/full", 1024L),
+                                                                group("/aws/lambda/unknown", null))
+                                                     .build());
+        cleaner = new LogGroupCleaner(client, asyncClientProvider);
+        cleaner.setFilter(new PhysicalDeletionFilter(List.of()));
+        cleaner.setReport(report);
+    }
+
+    @Test
+    public void shouldDeleteGroupsEmptyWhenListedKeepingGroupsOfUnknownSize() {
+        cleaner.setCommit(true);
+
+        cleaner.clean();
+
+        verify(client, times(1)).deleteLogGroup(deletes.capture());
+        final DeleteLogGroupRequest.Builder request = DeleteLogGroupRequest.builder();
+        deletes.getValue().accept(request);
+        assertEquals("/aws/lambda/empty", request.build().logGroupName());
+        // the size comes from the listing rather than describing each group again.
+        verify(client, times(1)).describeLogGroups(any(DescribeLogGroupsRequest.class));
+        verify(client, times(0)).describeLogGroups(ArgumentMatchers.<Consumer<DescribeLogGroupsRequest.Builder>>any());
+        assertEquals("us-west-2 LogGroupCleaner: 3 listed, 2 kept, 1 deleted, 0 failed in 0ms", report.toString());
+    }
+
+    @Test
+    public void shouldOnlyReportEmptyGroupsAsDeletedInDryRun() {
+        cleaner.clean();
+
+        verify(client, never()).deleteLogGroup(ArgumentMatchers.<Consumer<DeleteLogGroupRequest.Builder>>any());
+        assertEquals("us-west-2 LogGroupCleaner: 3 listed, 2 kept, 1 deleted, 0 failed in 0ms", report.toString());
+    }
+
+    private static LogGroup group(String name, Long storedBytes) {
+        return LogGroup.builder().logGroupName(name).storedBytes(storedBytes).creationTime(0L).build();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.CandidateResource;
+import com.limemojito.aws.cleaner.filter.NameFilter;
+import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PhysicalResourceCleanerTest {
+
+    @Test
+    public void shouldCapDeletesInFlightAtParallelism() {
+        final FakeCleaner cleaner = cleaner(3, 12);
+        cleaner.setCommit(true);
+
+        cleaner.clean();
+
+        assertEquals(11, cleaner.deleted.size());
+        assertTrue("Max in flight was " + cleaner.maxInFlight.get(), cleaner.maxInFlight.get() <= 3);
+        assertEquals("us-west-2 FakeCleaner: 12 listed, 1 kept, 11 deleted, 0 failed in 0ms",
+                     cleaner.report.toString());
+    }
+
+    @Test
+    public void shouldDeleteOtherResourcesWhenOneFails() {
+        final FakeCleaner cleaner = cleaner(3, 8);
+        cleaner.failing = "resource-2";
+        cleaner.setCommit(true);
+
+        try {
+            cleaner.clean();
+            fail("Expected the failed delete to be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("Could not delete resource-2", e.getMessage());
+        }
+
+        assertEquals(7, cleaner.deleted.size());
+        assertEquals("us-west-2 FakeCleaner: 8 listed, 0 kept, 7 deleted, 1 failed in 0ms",
+                     cleaner.report.toString());
+    }
+
+    @Test
+    public void shouldDryRunConcurrentlyAsSequentially() {
+        final FakeCleaner sequential = cleaner(1, 10);
+        final FakeCleaner concurrent = cleaner(4, 10);
+
+        sequential.clean();
+        concurrent.clean();
+
+        assertTrue(sequential.deleted.isEmpty());
+        assertTrue(concurrent.deleted.isEmpty());
+        assertEquals("us-west-2 FakeCleaner: 10 listed, 1 kept, 9 deleted, 0 failed in 0ms",
+                     sequential.report.toString());
+        assertEquals(sequential.report.toString(), concurrent.report.toString());
+    }
+
+    private static FakeCleaner cleaner(int parallelism, int resources) {
+        final FakeCleaner cleaner = new FakeCleaner(IntStream.range(0, resources)
+                                                             .mapToObj(i -> CandidateResource.of("resource-" + i))
+                                                             .toList());
+        cleaner.setFilter(new PhysicalDeletionFilter(List.of(new NameFilter("resource-9"))));
+        cleaner.setReport(cleaner.report);
+        cleaner.setMaxInFlight(parallelism);
+        return cleaner;
+    }
+
+    private static class FakeCleaner extends PhysicalResourceCleaner {
+        private final CleanerReport report = new CleanerReport("us-west-2", "FakeCleaner", null);
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final List<CandidateResource> candidates;
+        private volatile String failing;
+
+        FakeCleaner(List<CandidateResource> candidates) {
+            this.candidates = candidates;
+        }
+
+        @Override
+        protected List<CandidateResource> getCandidates() {
+            return candidates;
+        }
+
+        @Override
+        protected void performDelete(CandidateResource candidate) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                if (candidate.id().equals(failing)) {
+                    throw new IllegalStateException("Could not delete " + candidate.id());
+                }
+                deleted.add(candidate.id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
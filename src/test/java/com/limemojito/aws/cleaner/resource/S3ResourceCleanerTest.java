@@ -0,0 +1,106 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.DeleteBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.ListBucketsRequest;
+import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
+import software.amazon.awssdk.services.s3.paginators.ListBucketsIterable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static software.amazon.awssdk.regions.Region.US_WEST_2;
+
+public class S3ResourceCleanerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private S3Client client;
+
+    @Captor
+    private ArgumentCaptor<ListBucketsRequest> listings;
+
+    @Captor
+    private ArgumentCaptor<Consumer<DeleteBucketRequest.Builder>> deletes;
+
+    private final CleanerReport report = new CleanerReport("us-west-2", "S3ResourceCleaner", null);
+    private S3ResourceCleaner cleaner;
+
+    @Before
+    public void setUp() {
+        when(client.listBucketsPaginator(ArgumentMatchers.<Consumer<ListBucketsRequest.Builder>>any()))
+                .thenAnswer(invocation -> {
+                    final ListBucketsRequest.Builder request = ListBucketsRequest.builder();
+                    invocation.<Consumer<ListBucketsRequest.Builder>>getArgument(0).accept(request);
+                    return new ListBucketsIterable(client, request.build());
+                });
+        when(client.listBuckets(any(ListBucketsRequest.class)))
+                .thenReturn(ListBucketsResponse.builder()
+                                               .buckets(bucket("west-bucket", "us-west-2"),
+                                                        bucket("east-bucket", "us-east-1"),
+                                                        bucket("unknown-bucket", null))
+                                               .build());
+        cleaner = new S3ResourceCleaner(client, 100, US_WEST_2);
+        cleaner.setFilter(new PhysicalDeletionFilter(List.of()));
+        cleaner.setReport(report);
+        cleaner.setCommit(true);
+    }
+
+    @Test
+    public void shouldOnlyDeleteBucketsListedInTheCleaningRegion() {
+        cleaner.clean();
+
+        verify(client).listBuckets(listings.capture());
+        assertEquals("us-west-2", listings.getValue().bucketRegion());
+        assertEquals(Integer.valueOf(100), listings.getValue().maxBuckets());
+        verify(client, times(1)).deleteBucket(deletes.capture());
+        final DeleteBucketRequest.Builder request = DeleteBucketRequest.builder();
+        deletes.getValue().accept(request);
+        assertEquals("west-bucket", request.build().bucket());
+        // the listing's region is used rather than asking S3 for each bucket's region.
+        verify(client, never()).headBucket(any(HeadBucketRequest.class));
+        assertEquals("us-west-2 S3ResourceCleaner: 1 listed, 0 kept, 1 deleted, 0 failed in 0ms", report.toString());
+    }
+
+    private static Bucket bucket(String name, String region) {
+        return Bucket.builder().name(name).bucketRegion(region).build();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import com.limemojito.aws.cleaner.filter.NameFilter;
+import com.limemojito.aws.cleaner.filter.PhysicalDeletionFilter;
+import com.limemojito.aws.cleaner.metrics.CleanerReport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.beans.factory.ObjectProvider;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.DeleteQueueRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteQueueResponse;
+import software.amazon.awssdk.services.sqs.model.ListQueuesRequest;
+import software.amazon.awssdk.services.sqs.model.ListQueuesResponse;
+import software.amazon.awssdk.services.sqs.paginators.ListQueuesPublisher;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SQSResourceCleanerTest {
+    private static final String QUEUES = "https://sqs.us-west-2.amazonaws.com/123456789012/";
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private SqsClient client;
+
+    @Mock
+    private SqsAsyncClient asyncClient;
+
+    @Mock
+    private ObjectProvider<SqsAsyncClient> asyncClientProvider;
+
+    private final CleanerReport report = new CleanerReport("us-west-2", "SQSResourceCleaner", null);
+    private SQSResourceCleaner cleaner;
+
+    @Before
+    public void setUp() {
+        when(asyncClientProvider.getObject()).thenReturn(asyncClient);
+        when(asyncClient.listQueuesPaginator(any(ListQueuesRequest.class)))
+                .thenAnswer(invocation -> new ListQueuesPublisher(asyncClient, invocation.getArgument(0)));
+        when(asyncClient.listQueues(any(ListQueuesRequest.class)))
+                .thenReturn(completedFuture(ListQueuesResponse.builder()
+                                                              .queueUrls(QUEUES + "keep-queue",
+                                                                         QUEUES + "old-queue",
+                                                                         QUEUES + "other-queue")
+                                                              .build()));
+        cleaner = new SQSResourceCleaner(client, asyncClientProvider);
+        cleaner.setFilter(new PhysicalDeletionFilter(List.of(new NameFilter("keep"))));
+        cleaner.setReport(report);
+        cleaner.setMaxInFlight(2);
+    }
+
+    @Test
+    public void shouldDeleteAsynchronouslyRetryingThrottledDeletes() {
+        final SdkServiceException throttled = SdkServiceException.builder()
+                                                                 .statusCode(429)
+                                                                 .message("Rate exceeded")
+                                                                 .build();
+        when(asyncClient.deleteQueue(ArgumentMatchers.<Consumer<DeleteQueueRequest.Builder>>any()))
+                .thenReturn(failedFuture(throttled), completedFuture(DeleteQueueResponse.builder().build()));
+        cleaner.setCommit(true);
+
+        cleaner.cleanAsync().toCompletableFuture().join();
+
+        verify(asyncClient, times(3)).deleteQueue(ArgumentMatchers.<Consumer<DeleteQueueRequest.Builder>>any());
+        assertEquals("us-west-2 SQSResourceCleaner: 3 listed, 1 kept, 2 deleted, 0 failed in 0ms", report.toString());
+    }
+
+    @Test
+    public void shouldNotDeleteAsynchronouslyInDryRun() {
+        cleaner.cleanAsync().toCompletableFuture().join();
+
+        verify(asyncClient, never()).deleteQueue(ArgumentMatchers.<Consumer<DeleteQueueRequest.Builder>>any());
+        assertEquals("us-west-2 SQSResourceCleaner: 3 listed, 1 kept, 2 deleted, 0 failed in 0ms", report.toString());
+    }
+}
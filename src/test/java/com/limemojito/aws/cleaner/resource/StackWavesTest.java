@@ -0,0 +1,60 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StackWavesTest {
+
+    @Test
+    public void shouldDeleteImportersBeforeExporters() {
+        final StackWaves plan = new StackWaves(List.of("network", "database", "api", "web"),
+                                               Map.of("network", Set.of("database", "api"),
+                                                      "database", Set.of("api")));
+
+        assertEquals(List.of(List.of("api", "web"), List.of("database"), List.of("network")), plan.waves());
+        assertTrue(plan.blocked().isEmpty());
+        assertTrue(plan.cyclic().isEmpty());
+    }
+
+    @Test
+    public void shouldBlockStacksImportedByKeptStacks() {
+        final StackWaves plan = new StackWaves(List.of("network", "database", "web"),
+                                               Map.of("network", Set.of("database"),
+                                                      "database", Set.of("kept-api")));
+
+        assertEquals(List.of(List.of("web")), plan.waves());
+        assertEquals(Set.of("database", "network"), plan.blocked());
+    }
+
+    @Test
+    public void shouldReportStacksImportingEachOther() {
+        final StackWaves plan = new StackWaves(List.of("left", "right", "web"),
+                                               Map.of("left", Set.of("right"), "right", Set.of("left")));
+
+        assertEquals(List.of(List.of("web")), plan.waves());
+        assertEquals(Set.of("left", "right"), plan.cyclic());
+    }
+}
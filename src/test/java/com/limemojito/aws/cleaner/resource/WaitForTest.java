@@ -0,0 +1,77 @@
+/*
+ * Copyright 2011-2025 Lime Mojito Pty Ltd
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *
+ */
+
+package com.limemojito.aws.cleaner.resource;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WaitForTest {
+    private static final WaitFor.Polling FAST = new WaitFor.Polling(Duration.ofMillis(5), Duration.ofMillis(20));
+
+    private final AtomicInteger polls = new AtomicInteger();
+
+    @Test
+    public void shouldCompleteWhenSituationBecomesTrue() {
+        assertTrue(WaitFor.waitFor(Duration.ofSeconds(5), FAST, () -> polls.incrementAndGet() == 4));
+
+        assertEquals(4, polls.get());
+    }
+
+    @Test
+    public void shouldTreatFailingSituationAsFalseUntilDeadline() {
+        assertFalse(WaitFor.waitFor(Duration.ofMillis(100), FAST, () -> {
+            polls.incrementAndGet();
+            throw new IllegalStateException("not yet");
+        }));
+
+        assertTrue(polls.get() > 1);
+    }
+
+    @Test
+    public void shouldStopPollingWhenCancelled() throws Exception {
+        final CompletableFuture<Boolean> wait = WaitFor.waitForAsync(Duration.ofSeconds(5), FAST, () -> {
+            polls.incrementAndGet();
+            return false;
+        });
+        Thread.sleep(50);
+        wait.cancel(false);
+        final int cancelledAt = polls.get();
+        Thread.sleep(100);
+
+        assertTrue(wait.isCancelled());
+        assertTrue(polls.get() <= cancelledAt + 1);
+    }
+
+    @Test
+    public void shouldRejectMaximumBelowInitial() {
+        try {
+            new WaitFor.Polling(Duration.ofSeconds(2), Duration.ofSeconds(1));
+            fail("Expected invalid polling");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("PT2S to PT1S"));
+        }
+    }
+}